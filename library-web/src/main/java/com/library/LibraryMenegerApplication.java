@@ -2,12 +2,18 @@ package com.library;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Главный класс приложения LibraryManager.
  * Запускает Spring Boot и инициализирует все компоненты приложения.
+ * Планировщик используется для периодической записи сводной статистики каталога.
+ * Подсказки для AOT-обработки и native image — в {@link LibraryRuntimeHints}.
  */
 @SpringBootApplication
+@EnableScheduling
+@ImportRuntimeHints(LibraryRuntimeHints.class)
 public class LibraryMenegerApplication {
 
     /**
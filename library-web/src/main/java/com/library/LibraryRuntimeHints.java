@@ -0,0 +1,91 @@
+package com.library;
+
+import com.library.controller.api.AuthorDto;
+import com.library.controller.api.CopyDto;
+import com.library.controller.api.OeuvreDto;
+import com.library.service.BulkCopyResult;
+import com.library.service.CatalogueCounts;
+import com.library.service.CatalogueDashboard;
+import com.library.service.DeletedRows;
+import com.library.service.ImportReport;
+import com.library.service.KeysetPage;
+import com.library.service.OeuvreSearchQuery;
+import com.library.service.OeuvreSearchResult;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.util.ClassUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Подсказки для сборки native image (GraalVM) и AOT-обработки Spring.
+ *
+ * В native image доступны только заранее объявленные ресурсы и члены классов, используемые через отражение:
+ * <ul>
+ *     <li>шаблоны Thymeleaf, статические ресурсы, сообщения и настройки кэша Caffeine;</li>
+ *     <li>сущности (их создаёт Lombok) и проекции: шаблоны читают их свойства через SpEL,
+ *     формы заполняют через сеттеры, а Hibernate Validator читает аннотации проверок с полей;</li>
+ *     <li>записи сервисного слоя, которые контроллеры передают в шаблоны;</li>
+ *     <li>DTO REST API: контроллеры отдают их через MappingJacksonValue, поэтому Spring не выводит
+ *     подсказки из сигнатур методов, а ApiFields читает их компоненты.</li>
+ * </ul>
+ */
+public class LibraryRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final List<String> MODEL_PACKAGES = List.of("com.library.entity", "com.library.repository.projection");
+
+    private static final List<Class<?>> VIEW_MODELS = List.of(
+            KeysetPage.class, CatalogueDashboard.class, CatalogueCounts.class, BulkCopyResult.class,
+            DeletedRows.class, ImportReport.class, OeuvreSearchQuery.class, OeuvreSearchResult.class);
+
+    private static final List<Class<?>> API_MODELS = List.of(AuthorDto.class, OeuvreDto.class, CopyDto.class);
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        hints.resources()
+                .registerPattern("templates/**")
+                .registerPattern("static/**")
+                .registerPattern("messages*.properties")
+                .registerPattern("caffeine.conf");
+
+        BindingReflectionHintsRegistrar binding = new BindingReflectionHintsRegistrar();
+        for (Class<?> type : modelTypes(classLoader)) {
+            binding.registerReflectionHints(hints.reflection(), type);
+            hints.reflection().registerType(type, MemberCategory.DECLARED_FIELDS,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        for (Class<?> type : VIEW_MODELS) {
+            binding.registerReflectionHints(hints.reflection(), type);
+        }
+        for (Class<?> type : API_MODELS) {
+            binding.registerReflectionHints(hints.reflection(), type);
+            hints.reflection().registerType(type, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+    }
+
+    /**
+     * Находит сущности и проекции на этапе сборки, чтобы новые классы попадали в подсказки без правки списка.
+     */
+    private static List<Class<?>> modelTypes(ClassLoader classLoader) {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false) {
+            @Override
+            protected boolean isCandidateComponent(AnnotatedBeanDefinition definition) {
+                return definition.getMetadata().isIndependent();
+            }
+        };
+        scanner.addIncludeFilter((reader, factory) -> true);
+        List<Class<?>> types = new ArrayList<>();
+        for (String modelPackage : MODEL_PACKAGES) {
+            for (BeanDefinition definition : scanner.findCandidateComponents(modelPackage)) {
+                types.add(ClassUtils.resolveClassName(definition.getBeanClassName(), classLoader));
+            }
+        }
+        return types;
+    }
+}
@@ -1,16 +1,23 @@
 package com.library.controller;
 
 import com.library.entity.Author;
+import com.library.repository.projection.AuthorListRow;
+import com.library.repository.projection.LookupItem;
 import com.library.service.AuthorService;
+import com.library.service.CatalogueCountService;
+import com.library.service.DeletedRows;
+import com.library.service.KeysetPage;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Контроллер для управления авторами.
@@ -22,28 +29,44 @@ import java.util.List;
 public class AuthorController {
 
     private final AuthorService authorService;
+    private final CatalogueCountService catalogueCountService;
 
     /**
-     * Конструктор контроллера с внедрением зависимости AuthorService.
+     * Конструктор контроллера с внедрением зависимостей.
      *
-     * @param authorService сервис для работы с авторами
+     * @param authorService         сервис для работы с авторами
+     * @param catalogueCountService сервис подсчёта записей каталога
      */
     @Autowired
-    public AuthorController(AuthorService authorService) {
+    public AuthorController(AuthorService authorService, CatalogueCountService catalogueCountService) {
         this.authorService = authorService;
+        this.catalogueCountService = catalogueCountService;
     }
 
     /**
-     * Отображает список всех авторов.
+     * Отображает страницу списка авторов (курсорная пагинация по ID).
      *
-     * @param model модель для передачи данных в представление
-     * @return HTML‑страница со списком авторов
+     * @param after   идентификатор, после которого начинается страница
+     * @param before  идентификатор, перед которым заканчивается страница
+     * @param size    размер страницы
+     * @param model   модель для передачи данных в представление
+     * @param request текущий запрос (условный GET по ETag)
+     * @return HTML‑страница со списком авторов или null при ответе 304
      */
     @GetMapping
-    public String listAuthors(Model model) {
-        List<Author> authors = authorService.getAllAuthors();
-        model.addAttribute("authors", authors);
-        model.addAttribute("authorCount", authors.size());
+    public String listAuthors(@RequestParam(name = "after", required = false) Long after,
+                              @RequestParam(name = "before", required = false) Long before,
+                              @RequestParam(name = "size", defaultValue = "" + KeysetPage.DEFAULT_SIZE) int size,
+                              Model model,
+                              ServletWebRequest request) {
+        if (ConditionalGet.isNotModified(request, model, "authors",
+                () -> Optional.of(authorService.getAuthorsPageStamp(after, before, size)))) {
+            return null;
+        }
+        KeysetPage<AuthorListRow> page = authorService.getAuthorsPage(after, before, size);
+        model.addAttribute("authors", page.items());
+        model.addAttribute("page", page);
+        model.addAttribute("authorCount", catalogueCountService.countAuthors());
         return "authors/list";
     }
 
@@ -160,9 +183,10 @@ public class AuthorController {
             Author author = authorService.getAuthorsById(id).orElse(null);
 
             if (author != null) {
-                authorService.deleteAuthor(id);
+                DeletedRows deleted = authorService.deleteAuthor(id);
                 redirectAttributes.addFlashAttribute("successMessage",
-                        "Автор " + author.getName() + " успешно удален");
+                        "Автор " + author.getName() + " успешно удален"
+                                + " (произведений: " + deleted.oeuvres() + ", копий: " + deleted.copies() + ")");
             } else {
                 redirectAttributes.addFlashAttribute("errorMessage", "Автор не найден");
             }
@@ -181,12 +205,17 @@ public class AuthorController {
      * @param id                 идентификатор автора
      * @param model              модель для передачи данных в представление
      * @param redirectAttributes атрибуты для сообщений после редиректа
-     * @return HTML‑страница с деталями автора или редирект при ошибке
+     * @param request            текущий запрос (условный GET по ETag / Last-Modified)
+     * @return HTML‑страница с деталями автора, редирект при ошибке или null при ответе 304
      */
     @GetMapping("/view/{id}")
     public String viewAuthor(@PathVariable("id") Long id,
                              Model model,
-                             RedirectAttributes redirectAttributes) {
+                             RedirectAttributes redirectAttributes,
+                             ServletWebRequest request) {
+        if (ConditionalGet.isNotModified(request, model, "author", () -> authorService.getAuthorStamp(id))) {
+            return null;
+        }
 
         Author author = authorService.getAuthorsById(id).orElse(null);
 
@@ -198,4 +227,19 @@ public class AuthorController {
         model.addAttribute("author", author);
         return "authors/view";
     }
+
+    /**
+     * Возвращает подсказки для выбора автора по имени (JSON).
+     * Используется полем выбора автора в форме произведения.
+     *
+     * @param query введённый текст
+     * @param limit максимальное количество подсказок
+     * @return список подсказок
+     */
+    @GetMapping("/lookup")
+    @ResponseBody
+    public List<LookupItem> lookup(@RequestParam(name = "q", defaultValue = "") String query,
+                                   @RequestParam(name = "limit", defaultValue = "20") int limit) {
+        return authorService.lookupAuthors(query, limit);
+    }
 }
@@ -0,0 +1,68 @@
+package com.library.controller;
+
+import com.library.service.CatalogueImportService;
+import com.library.service.ImportReport;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Контроллер пакетного импорта каталога из CSV‑файла.
+ * Позволяет загрузить сразу авторов, произведения и копии
+ * вместо поштучного добавления через формы.
+ */
+@Controller
+@RequestMapping("/import")
+@RequiredArgsConstructor
+public class CatalogueImportController {
+
+    private final CatalogueImportService catalogueImportService;
+
+    /**
+     * Отображает форму загрузки файла.
+     *
+     * @return HTML‑страница с формой импорта
+     */
+    @GetMapping
+    public String showForm() {
+        return "import/form";
+    }
+
+    /**
+     * Импортирует загруженный CSV‑файл и показывает отчёт.
+     *
+     * @param file      загруженный файл
+     * @param delimiter разделитель столбцов
+     * @param model     модель для передачи данных в представление
+     * @return HTML‑страница с формой и отчётом об импорте
+     */
+    @PostMapping
+    public String importCsv(@RequestParam("file") MultipartFile file,
+                            @RequestParam(name = "delimiter", defaultValue = ",") char delimiter,
+                            Model model) {
+
+        if (file.isEmpty()) {
+            model.addAttribute("errorMessage", "Выберите непустой файл");
+            return "import/form";
+        }
+
+        try (InputStream input = file.getInputStream()) {
+            ImportReport report = catalogueImportService.importCsv(input, delimiter);
+            model.addAttribute("report", report);
+        } catch (IllegalArgumentException e) {
+            model.addAttribute("errorMessage", e.getMessage());
+        } catch (IOException e) {
+            model.addAttribute("errorMessage", "Не удалось прочитать файл: " + e.getMessage());
+        }
+
+        return "import/form";
+    }
+}
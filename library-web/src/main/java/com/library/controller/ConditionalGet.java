@@ -0,0 +1,66 @@
+package com.library.controller;
+
+import com.library.repository.projection.VersionStamp;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.ui.Model;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Условные GET‑запросы страниц просмотра и списков.
+ *
+ * Страница получает сильный ETag из {@link VersionStamp} и, если у отметки есть время изменения,
+ * заголовок Last-Modified; на повторный запрос с If-None-Match / If-Modified-Since,
+ * если данные не менялись, отвечаем 304 после одного запроса отметки версии — без чтения данных и отрисовки шаблона.
+ * Списки и страница произведения отдают только ETag: удаление строки не сдвигает
+ * время изменения оставшихся, и по одному If-Modified-Since клиент получил бы устаревший 304.
+ * Cache-Control: no-cache заставляет браузер проверять страницу каждый раз,
+ * а не показывать её из кэша по эвристике.
+ *
+ * Страницы с одноразовым сообщением (flash‑атрибуты после перенаправления) не кэшируются:
+ * иначе браузер показывал бы сообщение снова из кэша по ответу 304.
+ */
+final class ConditionalGet {
+
+    private static final List<String> FLASH_MESSAGES = List.of("successMessage", "errorMessage");
+
+    private static final String CACHE_CONTROL = CacheControl.noCache().cachePrivate().getHeaderValue();
+
+    private ConditionalGet() {
+    }
+
+    /**
+     * Проверяет, изменилась ли страница с версии, которая есть у клиента.
+     * Если нет — статус ответа уже установлен в 304, и обработчик должен вернуть null.
+     * Если да — в ответ добавлены ETag и (если известно время изменения) Last-Modified для следующего запроса.
+     *
+     * @param request текущий запрос
+     * @param model   модель страницы (проверяются flash‑сообщения)
+     * @param kind    вид страницы, входит в ETag (например, "author")
+     * @param stamp   запрос отметки версии; пустой Optional — записи нет
+     * @return true — если можно ответить 304 Not Modified
+     */
+    static boolean isNotModified(ServletWebRequest request,
+                                 Model model,
+                                 String kind,
+                                 Supplier<Optional<VersionStamp>> stamp) {
+        if (request.getResponse() == null) {
+            return false;
+        }
+        if (FLASH_MESSAGES.stream().anyMatch(model::containsAttribute)) {
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noStore().getHeaderValue());
+            return false;
+        }
+        Optional<VersionStamp> version = stamp.get();
+        if (version.isEmpty()) {
+            return false;
+        }
+        request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        Long lastModified = version.get().lastModified();
+        return request.checkNotModified(kind + "-" + version.get().tag(), lastModified == null ? -1 : lastModified);
+    }
+}
@@ -1,13 +1,34 @@
 package com.library.controller;
 
 import com.library.entity.Copy;
+import com.library.entity.CopyStatus;
+import com.library.repository.projection.CopyListRow;
+import com.library.repository.projection.LoanRow;
+import com.library.service.BulkCopyResult;
+import com.library.service.CatalogueCountService;
 import com.library.service.CopyService;
-import com.library.service.OeuvreService;
+import com.library.service.KeysetPage;
+import com.library.service.CopyStatusLabels;
+import com.library.service.LoanService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.support.RequestContextUtils;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.thymeleaf.spring6.view.ThymeleafViewResolver;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Контроллер для управления экземплярами книг (копиями).
@@ -19,33 +40,124 @@ import java.util.List;
 public class CopyController {
 
     private final CopyService copyService;
-    private final OeuvreService oeuvreService;
+    private final CatalogueCountService catalogueCountService;
+    private final LoanService loanService;
+    private final CopyStatusLabels statusLabels;
+    private final ThymeleafViewResolver viewResolver;
 
     /**
      * Конструктор контроллера с внедрением зависимостей.
      *
-     * @param copyService   сервис для работы с копиями
-     * @param oeuvreService сервис для работы с произведениями
+     * @param copyService           сервис для работы с копиями
+     * @param catalogueCountService сервис подсчёта записей каталога
+     * @param loanService           сервис выдачи и возврата
+     * @param statusLabels          названия статусов для сообщений
+     * @param viewResolver          поиск шаблонов страниц, отрисовываемых внутри обработчика
      */
-    public CopyController(CopyService copyService, OeuvreService oeuvreService) {
+    public CopyController(CopyService copyService,
+                          CatalogueCountService catalogueCountService,
+                          LoanService loanService,
+                          CopyStatusLabels statusLabels,
+                          ThymeleafViewResolver viewResolver) {
         this.copyService = copyService;
-        this.oeuvreService = oeuvreService;
+        this.catalogueCountService = catalogueCountService;
+        this.loanService = loanService;
+        this.statusLabels = statusLabels;
+        this.viewResolver = viewResolver;
     }
 
     /**
-     * Отображает список всех копий.
+     * Отображает страницу списка копий (курсорная пагинация по ID).
      *
-     * @param model модель для передачи данных в представление
-     * @return HTML‑страница со списком копий
+     * @param after   идентификатор, после которого начинается страница
+     * @param before  идентификатор, перед которым заканчивается страница
+     * @param size    размер страницы
+     * @param model   модель для передачи данных в представление
+     * @param request текущий запрос (условный GET по ETag)
+     * @return HTML‑страница со списком копий или null при ответе 304
      */
     @GetMapping
-    public String list(Model model) {
-        List<Copy> copies = copyService.getAll();
-        model.addAttribute("copies", copies);
-        model.addAttribute("copyCount", copies.size());
+    public String list(@RequestParam(required = false) Long after,
+                       @RequestParam(required = false) Long before,
+                       @RequestParam(defaultValue = "" + KeysetPage.DEFAULT_SIZE) int size,
+                       Model model,
+                       ServletWebRequest request) {
+        if (ConditionalGet.isNotModified(request, model, "copies",
+                () -> Optional.of(copyService.getPageStamp(after, before, size)))) {
+            return null;
+        }
+        KeysetPage<CopyListRow> page = copyService.getPage(after, before, size);
+        model.addAttribute("copies", page.items());
+        model.addAttribute("page", page);
+        model.addAttribute("copyCount", catalogueCountService.countCopies());
+        model.addAttribute("statuses", copyService.getStatuses());
         return "copies/list";
     }
 
+    /**
+     * Отображает все копии одной страницей.
+     *
+     * Шаблон отрисовывается внутри обработчика: строки читаются порциями по
+     * {@link CopyService#STREAM_CHUNK_SIZE} в коротких транзакциях и выводятся по мере чтения,
+     * а после каждой порции ответ сбрасывается клиенту. Первые строки приходят, не дожидаясь чтения
+     * всей таблицы, расход памяти не зависит от количества копий, а соединение с базой данных
+     * не занято, пока клиент принимает порцию (open-in-view для этой страницы отключён,
+     * см. {@link OpenEntityManagerInView}).
+     *
+     * @param model    модель для передачи данных в представление
+     * @param request  HTTP‑запрос
+     * @param response HTTP‑ответ, в который пишется страница
+     * @throws Exception при ошибке чтения или отрисовки
+     */
+    @GetMapping("/all")
+    public void all(Model model, HttpServletRequest request, HttpServletResponse response) throws Exception {
+        model.addAttribute("copyCount", catalogueCountService.countCopies());
+        View view = viewResolver.resolveViewName("copies/all", RequestContextUtils.getLocale(request));
+        copyService.streamListRows(rows -> {
+            model.addAttribute("copies", rows);
+            view.render(model.asMap(), request, response);
+        }, () -> flush(response));
+    }
+
+    private static void flush(HttpServletResponse response) {
+        try {
+            response.flushBuffer();
+        } catch (IOException e) {
+            // Клиент закрыл соединение — прекращаем чтение порций
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Возвращает копию по инвентарному номеру (JSON для сканеров штрихкодов).
+     *
+     * @param inventoryNumber инвентарный номер
+     * @return строка копии или 404, если номер не найден
+     */
+    @GetMapping("/inventory/{inventoryNumber}")
+    @ResponseBody
+    public ResponseEntity<CopyListRow> findByInventoryNumber(@PathVariable String inventoryNumber) {
+        return ResponseEntity.of(copyService.findByInventoryNumber(inventoryNumber));
+    }
+
+    /**
+     * Открывает карточку копии по отсканированному инвентарному номеру.
+     *
+     * @param number             инвентарный номер
+     * @param redirectAttributes атрибуты для сообщения, если номер не найден
+     * @return перенаправление на карточку копии или на список копий
+     */
+    @GetMapping("/scan")
+    public String scan(@RequestParam(defaultValue = "") String number, RedirectAttributes redirectAttributes) {
+        return copyService.findByInventoryNumber(number)
+                .map(copy -> "redirect:/copies/view/" + copy.id())
+                .orElseGet(() -> {
+                    redirectAttributes.addFlashAttribute("errorMessage",
+                            "Копия с инвентарным номером «" + number.strip() + "» не найдена");
+                    return "redirect:/copies";
+                });
+    }
+
     /**
      * Отображает форму создания новой копии.
      *
@@ -55,7 +167,6 @@ public class CopyController {
     @GetMapping("/new")
     public String createForm(Model model) {
         model.addAttribute("copy", new Copy());
-        model.addAttribute("oeuvres", oeuvreService.getAllOeuvres());
         model.addAttribute("statuses", copyService.getStatuses());
         model.addAttribute("action", "create");
         return "copies/form";
@@ -75,7 +186,6 @@ public class CopyController {
             return "redirect:/copies";
         } catch (IllegalArgumentException e) {
             model.addAttribute("copy", copy);
-            model.addAttribute("oeuvres", oeuvreService.getAllOeuvres());
             model.addAttribute("statuses", copyService.getStatuses());
             model.addAttribute("action", "create");
             model.addAttribute("errorMessage", e.getMessage());
@@ -83,6 +193,108 @@ public class CopyController {
         }
     }
 
+    /**
+     * Отображает форму добавления нескольких копий одного произведения.
+     *
+     * @param model модель для передачи данных в представление
+     * @return HTML‑страница с формой массового добавления
+     */
+    @GetMapping("/bulk/new")
+    public String createBatchForm(Model model) {
+        model.addAttribute("copy", new Copy());
+        model.addAttribute("statuses", copyService.getStatuses());
+        model.addAttribute("prefix", "");
+        model.addAttribute("count", 10);
+        return "copies/bulk-form";
+    }
+
+    /**
+     * Обрабатывает добавление нескольких копий одного произведения.
+     *
+     * @param copy               произведение и статус новых копий, заполненные из формы
+     * @param prefix             префикс инвентарных номеров
+     * @param count              количество копий
+     * @param model              модель для передачи данных при ошибке
+     * @param redirectAttributes атрибуты для сообщений после редиректа
+     * @return перенаправление на список копий или возврат формы при ошибке
+     */
+    @PostMapping("/bulk")
+    public String createBatch(@ModelAttribute Copy copy,
+                              @RequestParam(defaultValue = "") String prefix,
+                              @RequestParam(defaultValue = "0") int count,
+                              Model model,
+                              RedirectAttributes redirectAttributes) {
+        try {
+            List<Copy> created = copyService.createBatch(copy, prefix, count);
+            redirectAttributes.addFlashAttribute("successMessage",
+                    "Добавлено копий: " + created.size() + " (номера " + created.get(0).getInventoryNumber()
+                            + " – " + created.get(created.size() - 1).getInventoryNumber() + ")");
+            return "redirect:/copies";
+        } catch (IllegalArgumentException e) {
+            model.addAttribute("copy", copy);
+            model.addAttribute("statuses", copyService.getStatuses());
+            model.addAttribute("prefix", prefix);
+            model.addAttribute("count", count);
+            model.addAttribute("errorMessage", e.getMessage());
+            return "copies/bulk-form";
+        }
+    }
+
+    /**
+     * Меняет статус копий, отмеченных в списке.
+     *
+     * @param ids                идентификаторы отмеченных копий
+     * @param status             новый статус
+     * @param after              курсор текущей страницы списка (для возврата на неё)
+     * @param before             курсор текущей страницы списка (для возврата на неё)
+     * @param size               размер текущей страницы списка
+     * @param redirectAttributes атрибуты для сообщений после редиректа
+     * @return перенаправление на ту же страницу списка
+     */
+    @PostMapping("/bulk/status")
+    public String changeStatusBatch(@RequestParam(required = false) List<Long> ids,
+                                    @RequestParam(required = false) CopyStatus status,
+                                    @RequestParam(required = false) Long after,
+                                    @RequestParam(required = false) Long before,
+                                    @RequestParam(required = false) Integer size,
+                                    RedirectAttributes redirectAttributes) {
+        try {
+            BulkCopyResult result = copyService.changeStatus(ids, status);
+            redirectAttributes.addFlashAttribute("successMessage",
+                    "Статус «" + statusLabels.label(status) + "» установлен у копий: " + result.changed()
+                            + skippedNote(result, "выданы или уже в этом статусе"));
+        } catch (IllegalArgumentException e) {
+            redirectAttributes.addFlashAttribute("errorMessage", e.getMessage());
+        }
+        return listRedirect(after, before, size);
+    }
+
+    /**
+     * Удаляет копии, отмеченные в списке.
+     *
+     * @param ids                идентификаторы отмеченных копий
+     * @param after              курсор текущей страницы списка (для возврата на неё)
+     * @param before             курсор текущей страницы списка (для возврата на неё)
+     * @param size               размер текущей страницы списка
+     * @param redirectAttributes атрибуты для сообщений после редиректа
+     * @return перенаправление на ту же страницу списка
+     */
+    @PostMapping("/bulk/delete")
+    public String deleteBatch(@RequestParam(required = false) List<Long> ids,
+                              @RequestParam(required = false) Long after,
+                              @RequestParam(required = false) Long before,
+                              @RequestParam(required = false) Integer size,
+                              RedirectAttributes redirectAttributes) {
+        try {
+            BulkCopyResult result = copyService.delete(ids);
+            redirectAttributes.addFlashAttribute("successMessage",
+                    "Удалено копий: " + result.changed() + skippedNote(result, "выданы или уже удалены"));
+        } catch (IllegalArgumentException e) {
+            redirectAttributes.addFlashAttribute("errorMessage", e.getMessage());
+        }
+        return listRedirect(after, before, size);
+    }
+
     /**
      * Отображает форму редактирования существующей копии.
      *
@@ -93,7 +305,6 @@ public class CopyController {
     @GetMapping("/edit/{id}")
     public String editForm(@PathVariable Long id, Model model) {
         model.addAttribute("copy", copyService.getById(id));
-        model.addAttribute("oeuvres", oeuvreService.getAllOeuvres());
         model.addAttribute("statuses", copyService.getStatuses());
         model.addAttribute("action", "edit");
         return "copies/form";
@@ -114,7 +325,6 @@ public class CopyController {
             return "redirect:/copies";
         } catch (IllegalArgumentException e) {
             model.addAttribute("copy", copy);
-            model.addAttribute("oeuvres", oeuvreService.getAllOeuvres());
             model.addAttribute("statuses", copyService.getStatuses());
             model.addAttribute("action", "edit");
             model.addAttribute("errorMessage", e.getMessage());
@@ -123,27 +333,67 @@ public class CopyController {
     }
 
     /**
-     * Отображает страницу с подробной информацией о копии.
+     * Отображает страницу с подробной информацией о копии,
+     * текущей выдачей и последними выдачами.
+     * Страница зависит и от текущей даты (просрочка, срок возврата по умолчанию),
+     * поэтому дата входит в ETag, а Last-Modified не раньше начала дня.
      *
-     * @param id    идентификатор копии
-     * @param model модель для передачи данных в представление
-     * @return HTML‑страница с деталями копии
+     * @param id      идентификатор копии
+     * @param model   модель для передачи данных в представление
+     * @param request текущий запрос (условный GET по ETag / Last-Modified)
+     * @return HTML‑страница с деталями копии или null при ответе 304
      */
     @GetMapping("/view/{id}")
-    public String view(@PathVariable Long id, Model model) {
+    public String view(@PathVariable Long id, Model model, ServletWebRequest request) {
+        LocalDate today = LocalDate.now();
+        long startOfDay = today.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        if (ConditionalGet.isNotModified(request, model, "copy",
+                () -> copyService.getStamp(id).map(stamp -> stamp.with(today).notBefore(startOfDay)))) {
+            return null;
+        }
+        List<LoanRow> loans = loanService.getHistory(id);
+        LoanRow openLoan = loans.isEmpty() || loans.get(0).returnDate() != null ? null : loans.get(0);
+
         model.addAttribute("copy", copyService.getById(id));
+        model.addAttribute("loans", loans);
+        model.addAttribute("openLoan", openLoan);
+        model.addAttribute("today", today);
+        model.addAttribute("defaultDueDate", today.plusDays(LoanService.DEFAULT_LOAN_DAYS));
         return "copies/view";
     }
 
     /**
      * Удаляет копию по идентификатору.
      *
-     * @param id идентификатор копии
+     * @param id                 идентификатор копии
+     * @param redirectAttributes атрибуты для сообщения, если копию удалить нельзя
      * @return перенаправление на список копий
      */
     @GetMapping("/delete/{id}")
-    public String delete(@PathVariable Long id) {
-        copyService.delete(id);
+    public String delete(@PathVariable Long id, RedirectAttributes redirectAttributes) {
+        try {
+            copyService.delete(id);
+        } catch (IllegalArgumentException e) {
+            redirectAttributes.addFlashAttribute("errorMessage", e.getMessage());
+        }
         return "redirect:/copies";
     }
+
+    /**
+     * Дополняет сообщение о массовой операции числом пропущенных копий.
+     */
+    private static String skippedNote(BulkCopyResult result, String reason) {
+        return result.skipped() == 0 ? "" : "; пропущено: " + result.skipped() + " (" + reason + ")";
+    }
+
+    /**
+     * Возвращает перенаправление на страницу списка, с которой была отправлена форма.
+     */
+    private static String listRedirect(Long after, Long before, Integer size) {
+        return "redirect:" + UriComponentsBuilder.fromPath("/copies")
+                .queryParamIfPresent("after", Optional.ofNullable(after))
+                .queryParamIfPresent("before", Optional.ofNullable(before))
+                .queryParamIfPresent("size", Optional.ofNullable(size))
+                .toUriString();
+    }
 }
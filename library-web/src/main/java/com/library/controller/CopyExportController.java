@@ -0,0 +1,57 @@
+package com.library.controller;
+
+import com.library.service.CopyExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Контроллер выгрузки полного инвентаря копий.
+ * Данные пишутся напрямую в поток ответа по мере чтения из базы.
+ */
+@Controller
+@RequestMapping("/copies/export")
+@RequiredArgsConstructor
+public class CopyExportController {
+
+    private final CopyExportService copyExportService;
+
+    /**
+     * Выгружает инвентарь в формате CSV.
+     *
+     * @param response HTTP‑ответ
+     * @throws IOException при ошибке записи ответа
+     */
+    @GetMapping("/csv")
+    public void exportCsv(HttpServletResponse response) throws IOException {
+        prepare(response, "text/csv;charset=UTF-8", "csv");
+        copyExportService.writeCsv(response.getOutputStream());
+    }
+
+    /**
+     * Выгружает инвентарь в формате NDJSON (JSON‑объект на строку).
+     *
+     * @param response HTTP‑ответ
+     * @throws IOException при ошибке записи ответа
+     */
+    @GetMapping("/ndjson")
+    public void exportNdjson(HttpServletResponse response) throws IOException {
+        prepare(response, "application/x-ndjson", "ndjson");
+        copyExportService.writeNdjson(response.getOutputStream());
+    }
+
+    private void prepare(HttpServletResponse response, String contentType, String extension) {
+        response.setContentType(contentType);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("copies-" + LocalDate.now() + "." + extension)
+                .build()
+                .toString());
+    }
+}
@@ -1,18 +1,28 @@
 package com.library.controller;
 
+import com.library.service.CatalogueStatsService;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 /**
  * Контроллер главной страницы приложения.
- * Отвечает за отображение стартового экрана библиотеки.
+ * Отвечает за отображение стартового экрана библиотеки
+ * со сводной статистикой каталога.
  */
 @Controller
+@RequiredArgsConstructor
 public class HomeController {
 
+    private final CatalogueStatsService catalogueStatsService;
+
     /**
      * Обрабатывает запрос на главную страницу сайта.
+     * Дополнительно передаёт панель статистики: итоги, копии по статусам,
+     * жанры, десятилетия публикации и авторов с наибольшим числом копий.
      *
      * @param model модель для передачи данных в представление
      * @return HTML‑страница home.html
@@ -20,6 +30,21 @@ public class HomeController {
     @GetMapping("/")
     public String home(Model model) {
         model.addAttribute("title", "Библиотека");
+        model.addAttribute("dashboard", catalogueStatsService.getDashboard());
         return "home";
     }
+
+    /**
+     * Пересчитывает статистику каталога по таблицам.
+     * Нужен после изменений базы данных в обход приложения.
+     *
+     * @param redirectAttributes атрибуты для сообщения после перенаправления
+     * @return перенаправление на главную страницу
+     */
+    @PostMapping("/stats/recount")
+    public String recount(RedirectAttributes redirectAttributes) {
+        catalogueStatsService.recount();
+        redirectAttributes.addFlashAttribute("successMessage", "Статистика пересчитана");
+        return "redirect:/";
+    }
 }
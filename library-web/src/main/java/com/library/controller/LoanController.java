@@ -0,0 +1,99 @@
+package com.library.controller;
+
+import com.library.entity.Loan;
+import com.library.repository.projection.LoanRow;
+import com.library.service.KeysetPage;
+import com.library.service.LoanService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+import java.time.LocalDate;
+
+/**
+ * Контроллер выдачи и возврата экземпляров.
+ * Обрабатывает список экземпляров на руках, оформление выдачи
+ * со страницы копии и приём экземпляра обратно.
+ */
+@Controller
+@RequestMapping("/loans")
+@RequiredArgsConstructor
+public class LoanController {
+
+    private final LoanService loanService;
+
+    /**
+     * Отображает список экземпляров на руках (курсорная пагинация по ID выдачи).
+     *
+     * @param after  идентификатор, после которого начинается страница
+     * @param before идентификатор, перед которым заканчивается страница
+     * @param size   размер страницы
+     * @param model  модель для передачи данных в представление
+     * @return HTML‑страница со списком выдач
+     */
+    @GetMapping
+    public String list(@RequestParam(required = false) Long after,
+                       @RequestParam(required = false) Long before,
+                       @RequestParam(defaultValue = "" + KeysetPage.DEFAULT_SIZE) int size,
+                       Model model) {
+        KeysetPage<LoanRow> page = loanService.getOpenPage(after, before, size);
+        model.addAttribute("loans", page.items());
+        model.addAttribute("page", page);
+        model.addAttribute("today", LocalDate.now());
+        model.addAttribute("openCount", loanService.countOpen());
+        model.addAttribute("overdueCount", loanService.countOverdue());
+        return "loans/list";
+    }
+
+    /**
+     * Выдаёт копию читателю.
+     *
+     * @param copyId             идентификатор копии
+     * @param borrower           читатель
+     * @param dueDate            срок возврата (если не указан — срок по умолчанию)
+     * @param redirectAttributes атрибуты для сообщений после редиректа
+     * @return перенаправление на страницу копии
+     */
+    @PostMapping
+    public String checkout(@RequestParam Long copyId,
+                           @RequestParam(defaultValue = "") String borrower,
+                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueDate,
+                           RedirectAttributes redirectAttributes) {
+        try {
+            Loan loan = loanService.checkout(copyId, borrower, dueDate);
+            redirectAttributes.addFlashAttribute("successMessage",
+                    "Копия выдана читателю «" + loan.getBorrower() + "» до " + loan.getDueDate());
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            redirectAttributes.addFlashAttribute("errorMessage", e.getMessage());
+        }
+        return "redirect:/copies/view/" + copyId;
+    }
+
+    /**
+     * Принимает экземпляр по выдаче обратно.
+     *
+     * @param id                 идентификатор выдачи
+     * @param from               откуда пришёл запрос: "loans" — со списка выдач, иначе со страницы копии
+     * @param redirectAttributes атрибуты для сообщений после редиректа
+     * @return перенаправление на список выдач или на страницу копии
+     */
+    @PostMapping("/return/{id}")
+    public String returnLoan(@PathVariable Long id,
+                             @RequestParam(defaultValue = "") String from,
+                             RedirectAttributes redirectAttributes) {
+        Long copyId = null;
+        try {
+            copyId = loanService.returnLoan(id);
+            redirectAttributes.addFlashAttribute("successMessage", "Экземпляр принят");
+        } catch (IllegalStateException e) {
+            redirectAttributes.addFlashAttribute("errorMessage", e.getMessage());
+        }
+        if ("loans".equals(from) || copyId == null) {
+            return "redirect:/loans";
+        }
+        return "redirect:/copies/view/" + copyId;
+    }
+}
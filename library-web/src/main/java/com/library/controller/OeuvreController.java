@@ -1,7 +1,12 @@
 package com.library.controller;
 
 import com.library.entity.Oeuvre;
-import com.library.service.AuthorService;
+import com.library.repository.projection.LookupItem;
+import com.library.repository.projection.OeuvreListRow;
+import com.library.service.CatalogueCountService;
+import com.library.service.DeletedRows;
+import com.library.service.CopyService;
+import com.library.service.KeysetPage;
 import com.library.service.OeuvreService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -9,8 +14,12 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.util.List;
+import java.util.Optional;
+
 /**
  * Контроллер для управления литературными произведениями.
  * Обрабатывает операции просмотра списка произведений,
@@ -22,18 +31,35 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 public class OeuvreController {
 
     private final OeuvreService oeuvreService;
-    private final AuthorService authorService;
+    private final CopyService copyService;
+    private final CatalogueCountService catalogueCountService;
 
     /**
-     * Отображает список всех произведений.
+     * Отображает страницу списка произведений (курсорная пагинация по ID).
      *
-     * @param model модель для передачи данных в представление
-     * @return HTML‑страница со списком произведений
+     * @param after   идентификатор, после которого начинается страница
+     * @param before  идентификатор, перед которым заканчивается страница
+     * @param size    размер страницы
+     * @param model   модель для передачи данных в представление
+     * @param request текущий запрос (условный GET по ETag)
+     * @return HTML‑страница со списком произведений или null при ответе 304
      */
     @GetMapping
-    public String listOeuvres(Model model) {
-        model.addAttribute("oeuvres", oeuvreService.getAllOeuvres());
-        model.addAttribute("oeuvreCount", oeuvreService.getAllOeuvres().size());
+    public String listOeuvres(@RequestParam(required = false) Long after,
+                              @RequestParam(required = false) Long before,
+                              @RequestParam(defaultValue = "" + KeysetPage.DEFAULT_SIZE) int size,
+                              Model model,
+                              ServletWebRequest request) {
+        if (ConditionalGet.isNotModified(request, model, "oeuvres",
+                () -> Optional.of(oeuvreService.getOeuvresPageStamp(after, before, size)))) {
+            return null;
+        }
+        KeysetPage<OeuvreListRow> page = oeuvreService.getOeuvresPage(after, before, size);
+        model.addAttribute("oeuvres", page.items());
+        model.addAttribute("availability", copyService.countAvailable(
+                page.items().stream().map(OeuvreListRow::id).toList()));
+        model.addAttribute("page", page);
+        model.addAttribute("oeuvreCount", catalogueCountService.countOeuvres());
         return "oeuvres/list";
     }
 
@@ -46,7 +72,6 @@ public class OeuvreController {
     @GetMapping("/new")
     public String showCreateForm(Model model) {
         model.addAttribute("oeuvre", new Oeuvre());
-        model.addAttribute("authors", authorService.getAllAuthors());
         model.addAttribute("action", "create");
         return "oeuvres/form";
     }
@@ -66,13 +91,19 @@ public class OeuvreController {
                                RedirectAttributes redirectAttributes,
                                Model model) {
 
+        requireAuthor(oeuvre, result);
         if (result.hasErrors()) {
-            model.addAttribute("authors", authorService.getAllAuthors());
             model.addAttribute("action", "create");
             return "oeuvres/form";
         }
 
-        oeuvreService.saveOeuvre(oeuvre);
+        try {
+            oeuvreService.saveOeuvre(oeuvre);
+        } catch (IllegalArgumentException e) {
+            result.rejectValue("author", "notFound", e.getMessage());
+            model.addAttribute("action", "create");
+            return "oeuvres/form";
+        }
         redirectAttributes.addFlashAttribute("successMessage",
                 "Произведение \"" + oeuvre.getTitle() + "\" успешно добавлено");
 
@@ -92,7 +123,7 @@ public class OeuvreController {
                                Model model,
                                RedirectAttributes redirectAttributes) {
 
-        Oeuvre oeuvre = oeuvreService.getOeuvreById(id).orElse(null);
+        Oeuvre oeuvre = oeuvreService.getOeuvreWithAuthor(id).orElse(null);
 
         if (oeuvre == null) {
             redirectAttributes.addFlashAttribute("errorMessage", "Произведение не найдено");
@@ -100,7 +131,6 @@ public class OeuvreController {
         }
 
         model.addAttribute("oeuvre", oeuvre);
-        model.addAttribute("authors", authorService.getAllAuthors());
         model.addAttribute("action", "edit");
 
         return "oeuvres/form";
@@ -123,8 +153,8 @@ public class OeuvreController {
                                RedirectAttributes redirectAttributes,
                                Model model) {
 
+        requireAuthor(oeuvre, result);
         if (result.hasErrors()) {
-            model.addAttribute("authors", authorService.getAllAuthors());
             model.addAttribute("action", "edit");
             oeuvre.setId(id);
             return "oeuvres/form";
@@ -156,9 +186,10 @@ public class OeuvreController {
             Oeuvre oeuvre = oeuvreService.getOeuvreById(id).orElse(null);
 
             if (oeuvre != null) {
-                oeuvreService.deleteOeuvre(id);
+                DeletedRows deleted = oeuvreService.deleteOeuvre(id);
                 redirectAttributes.addFlashAttribute("successMessage",
-                        "Произведение \"" + oeuvre.getTitle() + "\" успешно удалено");
+                        "Произведение \"" + oeuvre.getTitle() + "\" успешно удалено"
+                                + " (копий: " + deleted.copies() + ")");
             } else {
                 redirectAttributes.addFlashAttribute("errorMessage", "Произведение не найдено");
             }
@@ -177,14 +208,19 @@ public class OeuvreController {
      * @param id                 идентификатор произведения
      * @param model              модель для передачи данных в представление
      * @param redirectAttributes атрибуты для сообщений после редиректа
-     * @return HTML‑страница с деталями произведения или редирект при ошибке
+     * @param request            текущий запрос (условный GET по ETag)
+     * @return HTML‑страница с деталями произведения, редирект при ошибке или null при ответе 304
      */
     @GetMapping("/view/{id}")
     public String viewOeuvre(@PathVariable Long id,
                              Model model,
-                             RedirectAttributes redirectAttributes) {
+                             RedirectAttributes redirectAttributes,
+                             ServletWebRequest request) {
+        if (ConditionalGet.isNotModified(request, model, "oeuvre", () -> oeuvreService.getOeuvreStamp(id))) {
+            return null;
+        }
 
-        Oeuvre oeuvre = oeuvreService.getOeuvreById(id).orElse(null);
+        Oeuvre oeuvre = oeuvreService.getOeuvreWithAuthor(id).orElse(null);
 
         if (oeuvre == null) {
             redirectAttributes.addFlashAttribute("errorMessage", "Произведение не найдено");
@@ -192,6 +228,31 @@ public class OeuvreController {
         }
 
         model.addAttribute("oeuvre", oeuvre);
+        model.addAttribute("availableCopies", copyService.countAvailable(id));
         return "oeuvres/view";
     }
+
+    /**
+     * Возвращает подсказки для выбора произведения по названию (JSON).
+     * Используется полем выбора произведения в форме копии.
+     *
+     * @param query введённый текст
+     * @param limit максимальное количество подсказок
+     * @return список подсказок
+     */
+    @GetMapping("/lookup")
+    @ResponseBody
+    public List<LookupItem> lookup(@RequestParam(name = "q", defaultValue = "") String query,
+                                   @RequestParam(defaultValue = "20") int limit) {
+        return oeuvreService.lookupOeuvres(query, limit);
+    }
+
+    /**
+     * Проверяет, что в форме выбран автор: поле выбора передаёт только идентификатор.
+     */
+    private void requireAuthor(Oeuvre oeuvre, BindingResult result) {
+        if (oeuvre.getAuthor() == null || oeuvre.getAuthor().getId() == null) {
+            result.rejectValue("author", "required", "Выберите автора из списка");
+        }
+    }
 }
@@ -0,0 +1,37 @@
+package com.library.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Открывает EntityManager на время обработки запроса (open-in-view) для всех страниц,
+ * кроме «Все копии». Заменяет автоматическую настройку Spring Boot,
+ * отключённую свойством spring.jpa.open-in-view=false.
+ *
+ * Открытый на весь запрос EntityManager удерживает соединение с базой данных от первого запроса
+ * до конца ответа. Страница /copies/all выводится долго и читает строки порциями
+ * в отдельных транзакциях ({@link com.library.service.CopyService#streamListRows}), поэтому
+ * без open-in-view соединение возвращается в пул после каждой порции.
+ */
+@Component
+public class OpenEntityManagerInView implements WebMvcConfigurer {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * @param entityManagerFactory фабрика EntityManager приложения
+     */
+    public OpenEntityManagerInView(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        OpenEntityManagerInViewInterceptor interceptor = new OpenEntityManagerInViewInterceptor();
+        interceptor.setEntityManagerFactory(entityManagerFactory);
+        registry.addWebRequestInterceptor(interceptor).excludePathPatterns("/copies/all");
+    }
+}
@@ -0,0 +1,48 @@
+package com.library.controller;
+
+import com.library.service.OeuvreSearchQuery;
+import com.library.service.OeuvreSearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+/**
+ * Контроллер поиска по каталогу.
+ * Ищет произведения по названию, имени автора и жанру
+ * с фильтрами по жанру и диапазону лет публикации.
+ */
+@Controller
+@RequestMapping("/search")
+@RequiredArgsConstructor
+public class SearchController {
+
+    private final OeuvreSearchService oeuvreSearchService;
+
+    /**
+     * Отображает форму поиска и, если задана поисковая фраза, страницу результатов.
+     *
+     * @param text     поисковая фраза
+     * @param genre    фильтр по жанру
+     * @param yearFrom нижняя граница года публикации
+     * @param yearTo   верхняя граница года публикации
+     * @param page     номер страницы (с нуля)
+     * @param size     размер страницы
+     * @param model    модель для передачи данных в представление
+     * @return HTML‑страница поиска
+     */
+    @GetMapping
+    public String search(@RequestParam(name = "q", required = false) String text,
+                         @RequestParam(required = false) String genre,
+                         @RequestParam(required = false) Integer yearFrom,
+                         @RequestParam(required = false) Integer yearTo,
+                         @RequestParam(defaultValue = "0") int page,
+                         @RequestParam(defaultValue = "" + OeuvreSearchService.DEFAULT_SIZE) int size,
+                         Model model) {
+        OeuvreSearchQuery query = new OeuvreSearchQuery(text, genre, yearFrom, yearTo);
+        model.addAttribute("result", oeuvreSearchService.search(query, page, size));
+        return "search/results";
+    }
+}
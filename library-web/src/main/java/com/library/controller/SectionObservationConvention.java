@@ -0,0 +1,51 @@
+package com.library.controller;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Дополняет метрику http.server.requests двумя тегами:
+ * <ul>
+ *     <li>section — раздел каталога по первому сегменту шаблона адреса
+ *     (copies, oeuvres, authors, api, ...; root для главной страницы),
+ *     чтобы нагрузку на /copies и /oeuvres можно было сравнить одним запросом;</li>
+ *     <li>handler — метод контроллера вида CopyController.listCopies
+ *     (none для статических ресурсов и ответов без обработчика).</li>
+ * </ul>
+ */
+@Component
+public class SectionObservationConvention extends DefaultServerRequestObservationConvention {
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        return super.getLowCardinalityKeyValues(context).and(
+                KeyValue.of("section", section(context.getPathPattern())),
+                KeyValue.of("handler", handlerName(context.getCarrier())));
+    }
+
+    private static String section(String pattern) {
+        if (pattern == null) {
+            return "none";
+        }
+        String[] segments = pattern.split("/");
+        return segments.length < 2 || segments[1].isEmpty() ? "root" : segments[1];
+    }
+
+    /**
+     * Возвращает имя метода контроллера, обработавшего запрос.
+     *
+     * @param request запрос после выбора обработчика
+     * @return имя вида CopyController.listCopies или none, если обработчик — не метод контроллера
+     */
+    public static String handlerName(HttpServletRequest request) {
+        return request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod method
+                ? method.getBeanType().getSimpleName() + "." + method.getMethod().getName()
+                : "none";
+    }
+}
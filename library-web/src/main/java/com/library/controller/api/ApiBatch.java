@@ -0,0 +1,38 @@
+package com.library.controller.api;
+
+import com.library.service.KeysetPage;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Проверка идентификаторов пакетного запроса {@code …/batch?ids=1,2,3}.
+ */
+final class ApiBatch {
+
+    private ApiBatch() {
+    }
+
+    /**
+     * @param ids идентификаторы из параметра запроса (могут повторяться)
+     * @return различные идентификаторы, не больше {@link KeysetPage#MAX_SIZE}
+     * @throws ResponseStatusException 400, если идентификаторов слишком много
+     */
+    static Collection<Long> ids(List<Long> ids) {
+        Set<Long> distinct = new LinkedHashSet<>();
+        for (Long id : ids) {
+            if (id != null) {
+                distinct.add(id);
+            }
+        }
+        if (distinct.size() > KeysetPage.MAX_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "За один запрос можно получить не больше " + KeysetPage.MAX_SIZE + " записей");
+        }
+        return distinct;
+    }
+}
@@ -0,0 +1,92 @@
+package com.library.controller.api;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.lang.reflect.RecordComponent;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Выбор полей ответа REST API параметром {@code fields=id,title,…}.
+ *
+ * DTO помечены {@code @JsonFilter(ApiFields.FILTER)}; фильтр применяется при сериализации,
+ * поэтому невыбранные поля не попадают в ответ. Идентификатор возвращается всегда,
+ * чтобы клиент мог сопоставить записи с запросом.
+ */
+final class ApiFields {
+
+    /** Имя фильтра Jackson в аннотациях DTO. */
+    static final String FILTER = "apiFields";
+
+    private static final String ID = "id";
+
+    /** Выбранные поля; пустое множество — все поля. */
+    private final Set<String> selected;
+
+    private ApiFields(Set<String> selected) {
+        this.selected = selected;
+    }
+
+    /**
+     * Разбирает параметр fields. Вызывается до обращения к базе данных,
+     * чтобы ошибочный запрос не выполнял лишних запросов.
+     *
+     * @param fields  значение параметра fields (null или пустое — все поля)
+     * @param dtoType тип DTO, по компонентам которого проверяются имена полей
+     * @return выбор полей
+     * @throws ResponseStatusException 400, если указано неизвестное поле
+     */
+    static ApiFields parse(String fields, Class<? extends Record> dtoType) {
+        Set<String> selected = new LinkedHashSet<>();
+        if (fields == null || fields.isBlank()) {
+            return new ApiFields(selected);
+        }
+        Set<String> known = new LinkedHashSet<>();
+        for (RecordComponent component : dtoType.getRecordComponents()) {
+            known.add(component.getName());
+        }
+        for (String field : fields.split(",")) {
+            String name = field.strip();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!known.contains(name)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Неизвестное поле «" + name + "». Допустимые поля: " + String.join(", ", known));
+            }
+            selected.add(name);
+        }
+        if (!selected.isEmpty()) {
+            selected.add(ID);
+        }
+        return new ApiFields(selected);
+    }
+
+    /**
+     * Проверяет, нужно ли вычислять поле для ответа.
+     *
+     * @param field имя поля
+     * @return true — если поле выбрано явно или выбор полей не задан
+     */
+    boolean includes(String field) {
+        return selected.isEmpty() || selected.contains(field);
+    }
+
+    /**
+     * Оборачивает тело ответа с фильтром выбранных полей.
+     *
+     * @param body тело ответа (DTO, список DTO или страница DTO)
+     * @return тело ответа для конвертера сообщений
+     */
+    MappingJacksonValue apply(Object body) {
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        value.setFilters(new SimpleFilterProvider().addFilter(FILTER, selected.isEmpty()
+                ? SimpleBeanPropertyFilter.serializeAll()
+                : SimpleBeanPropertyFilter.filterOutAllExcept(selected)));
+        return value;
+    }
+}
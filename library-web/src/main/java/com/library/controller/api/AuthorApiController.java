@@ -0,0 +1,79 @@
+package com.library.controller.api;
+
+import com.library.service.AuthorService;
+import com.library.service.KeysetPage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST API авторов (только чтение) для киосков и мобильного приложения.
+ * Ответы строятся из проекций и DTO, сущности JPA не сериализуются.
+ */
+@RestController
+@RequestMapping("/api/v1/authors")
+@RequiredArgsConstructor
+public class AuthorApiController {
+
+    private final AuthorService authorService;
+
+    /**
+     * Возвращает страницу авторов (курсорная пагинация по ID).
+     *
+     * @param after  идентификатор, после которого начинается страница
+     * @param before идентификатор, перед которым заканчивается страница
+     * @param size   размер страницы (не больше {@link KeysetPage#MAX_SIZE})
+     * @param fields выбор полей через запятую (по умолчанию — все)
+     * @return страница авторов с курсорами previousCursor/nextCursor
+     */
+    @GetMapping
+    public MappingJacksonValue list(@RequestParam(required = false) Long after,
+                                    @RequestParam(required = false) Long before,
+                                    @RequestParam(defaultValue = "" + KeysetPage.DEFAULT_SIZE) int size,
+                                    @RequestParam(required = false) String fields) {
+        ApiFields selection = ApiFields.parse(fields, AuthorDto.class);
+        KeysetPage<AuthorDto> page = authorService.getAuthorsPage(after, before, size).map(AuthorDto::of);
+        return selection.apply(page);
+    }
+
+    /**
+     * Возвращает авторов по списку идентификаторов одним запросом.
+     * Несуществующие идентификаторы пропускаются.
+     *
+     * @param ids    идентификаторы через запятую (не больше {@link KeysetPage#MAX_SIZE})
+     * @param fields выбор полей через запятую (по умолчанию — все)
+     * @return авторы в порядке возрастания идентификатора
+     */
+    @GetMapping("/batch")
+    public MappingJacksonValue batch(@RequestParam List<Long> ids,
+                                     @RequestParam(required = false) String fields) {
+        ApiFields selection = ApiFields.parse(fields, AuthorDto.class);
+        List<AuthorDto> authors = authorService.getAuthorRowsByIds(ApiBatch.ids(ids)).stream()
+                .map(AuthorDto::of)
+                .toList();
+        return selection.apply(authors);
+    }
+
+    /**
+     * Возвращает автора с биографией.
+     *
+     * @param id     идентификатор автора
+     * @param fields выбор полей через запятую (по умолчанию — все)
+     * @return автор или 404, если автор не найден
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<MappingJacksonValue> get(@PathVariable Long id,
+                                                   @RequestParam(required = false) String fields) {
+        ApiFields selection = ApiFields.parse(fields, AuthorDto.class);
+        return ResponseEntity.of(authorService.getAuthorsById(id)
+                .map(AuthorDto::of)
+                .map(selection::apply));
+    }
+}
@@ -0,0 +1,40 @@
+package com.library.controller.api;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.library.entity.Author;
+import com.library.repository.projection.AuthorListRow;
+
+import java.time.LocalDate;
+
+/**
+ * Автор в ответах REST API.
+ * Пустые поля в ответ не попадают.
+ *
+ * @param id          идентификатор автора
+ * @param name        имя автора
+ * @param birthDate   дата рождения
+ * @param nationality национальность
+ * @param biography   биография (только в ответе на запрос одного автора)
+ */
+@JsonFilter(ApiFields.FILTER)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AuthorDto(Long id, String name, LocalDate birthDate, String nationality, String biography) {
+
+    /**
+     * @param row строка списка авторов
+     * @return DTO без биографии
+     */
+    static AuthorDto of(AuthorListRow row) {
+        return new AuthorDto(row.id(), row.name(), row.birthDate(), row.nationality(), null);
+    }
+
+    /**
+     * @param author автор
+     * @return DTO с биографией
+     */
+    static AuthorDto of(Author author) {
+        return new AuthorDto(author.getId(), author.getName(), author.getBirthDate(),
+                author.getNationality(), author.getBiography());
+    }
+}
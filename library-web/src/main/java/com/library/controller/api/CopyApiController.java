@@ -0,0 +1,96 @@
+package com.library.controller.api;
+
+import com.library.service.CopyService;
+import com.library.service.KeysetPage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST API копий (только чтение) для киосков и мобильного приложения.
+ * Ответы строятся из проекций и DTO, сущности JPA не сериализуются.
+ */
+@RestController
+@RequestMapping("/api/v1/copies")
+@RequiredArgsConstructor
+public class CopyApiController {
+
+    private final CopyService copyService;
+
+    /**
+     * Возвращает страницу копий (курсорная пагинация по ID).
+     *
+     * @param after  идентификатор, после которого начинается страница
+     * @param before идентификатор, перед которым заканчивается страница
+     * @param size   размер страницы (не больше {@link KeysetPage#MAX_SIZE})
+     * @param fields выбор полей через запятую (по умолчанию — все)
+     * @return страница копий с курсорами previousCursor/nextCursor
+     */
+    @GetMapping
+    public MappingJacksonValue list(@RequestParam(required = false) Long after,
+                                    @RequestParam(required = false) Long before,
+                                    @RequestParam(defaultValue = "" + KeysetPage.DEFAULT_SIZE) int size,
+                                    @RequestParam(required = false) String fields) {
+        ApiFields selection = ApiFields.parse(fields, CopyDto.class);
+        KeysetPage<CopyDto> page = copyService.getPage(after, before, size).map(CopyDto::of);
+        return selection.apply(page);
+    }
+
+    /**
+     * Возвращает копии по списку идентификаторов одним запросом.
+     * Несуществующие идентификаторы пропускаются.
+     *
+     * @param ids    идентификаторы через запятую (не больше {@link KeysetPage#MAX_SIZE})
+     * @param fields выбор полей через запятую (по умолчанию — все)
+     * @return копии в порядке возрастания идентификатора
+     */
+    @GetMapping("/batch")
+    public MappingJacksonValue batch(@RequestParam List<Long> ids,
+                                     @RequestParam(required = false) String fields) {
+        ApiFields selection = ApiFields.parse(fields, CopyDto.class);
+        List<CopyDto> copies = copyService.getRowsByIds(ApiBatch.ids(ids)).stream()
+                .map(CopyDto::of)
+                .toList();
+        return selection.apply(copies);
+    }
+
+    /**
+     * Возвращает копию.
+     *
+     * @param id     идентификатор копии
+     * @param fields выбор полей через запятую (по умолчанию — все)
+     * @return копия или 404, если копия не найдена
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<MappingJacksonValue> get(@PathVariable Long id,
+                                                   @RequestParam(required = false) String fields) {
+        ApiFields selection = ApiFields.parse(fields, CopyDto.class);
+        return ResponseEntity.of(copyService.getRowsByIds(List.of(id)).stream()
+                .findFirst()
+                .map(CopyDto::of)
+                .map(selection::apply));
+    }
+
+    /**
+     * Возвращает копию по инвентарному номеру (сканирование штрихкода).
+     *
+     * @param inventoryNumber инвентарный номер
+     * @param fields          выбор полей через запятую (по умолчанию — все)
+     * @return копия или 404, если номер не найден
+     */
+    @GetMapping("/inventory/{inventoryNumber}")
+    public ResponseEntity<MappingJacksonValue> findByInventoryNumber(@PathVariable String inventoryNumber,
+                                                                     @RequestParam(required = false) String fields) {
+        ApiFields selection = ApiFields.parse(fields, CopyDto.class);
+        return ResponseEntity.of(copyService.findByInventoryNumber(inventoryNumber)
+                .map(CopyDto::of)
+                .map(selection::apply));
+    }
+}
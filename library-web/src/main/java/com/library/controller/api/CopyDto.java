@@ -0,0 +1,29 @@
+package com.library.controller.api;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.library.entity.CopyStatus;
+import com.library.repository.projection.CopyListRow;
+
+/**
+ * Копия в ответах REST API.
+ * Пустые поля в ответ не попадают.
+ *
+ * @param id              идентификатор копии
+ * @param inventoryNumber инвентарный номер
+ * @param status          статус экземпляра
+ * @param oeuvreId        идентификатор произведения
+ * @param oeuvreTitle     название произведения
+ */
+@JsonFilter(ApiFields.FILTER)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CopyDto(Long id, String inventoryNumber, CopyStatus status, Long oeuvreId, String oeuvreTitle) {
+
+    /**
+     * @param row строка списка копий
+     * @return DTO
+     */
+    static CopyDto of(CopyListRow row) {
+        return new CopyDto(row.id(), row.inventoryNumber(), row.status(), row.oeuvreId(), row.oeuvreTitle());
+    }
+}
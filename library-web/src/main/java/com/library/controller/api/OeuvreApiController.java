@@ -0,0 +1,97 @@
+package com.library.controller.api;
+
+import com.library.repository.projection.OeuvreListRow;
+import com.library.service.CopyService;
+import com.library.service.KeysetPage;
+import com.library.service.OeuvreService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST API произведений (только чтение) для киосков и мобильного приложения.
+ * Ответы строятся из проекций и DTO, сущности JPA не сериализуются.
+ *
+ * Количество доступных копий считается одним запросом на страницу
+ * и только если поле availableCopies выбрано (или выбор полей не задан).
+ */
+@RestController
+@RequestMapping("/api/v1/oeuvres")
+@RequiredArgsConstructor
+public class OeuvreApiController {
+
+    private final OeuvreService oeuvreService;
+    private final CopyService copyService;
+
+    /**
+     * Возвращает страницу произведений (курсорная пагинация по ID).
+     *
+     * @param after  идентификатор, после которого начинается страница
+     * @param before идентификатор, перед которым заканчивается страница
+     * @param size   размер страницы (не больше {@link KeysetPage#MAX_SIZE})
+     * @param fields выбор полей через запятую (по умолчанию — все)
+     * @return страница произведений с курсорами previousCursor/nextCursor
+     */
+    @GetMapping
+    public MappingJacksonValue list(@RequestParam(required = false) Long after,
+                                    @RequestParam(required = false) Long before,
+                                    @RequestParam(defaultValue = "" + KeysetPage.DEFAULT_SIZE) int size,
+                                    @RequestParam(required = false) String fields) {
+        ApiFields selection = ApiFields.parse(fields, OeuvreDto.class);
+        KeysetPage<OeuvreListRow> page = oeuvreService.getOeuvresPage(after, before, size);
+        Map<Long, Long> available = availability(page.items(), selection);
+        return selection.apply(page.map(row -> OeuvreDto.of(row, available.get(row.id()))));
+    }
+
+    /**
+     * Возвращает произведения по списку идентификаторов одним запросом.
+     * Несуществующие идентификаторы пропускаются.
+     *
+     * @param ids    идентификаторы через запятую (не больше {@link KeysetPage#MAX_SIZE})
+     * @param fields выбор полей через запятую (по умолчанию — все)
+     * @return произведения в порядке возрастания идентификатора
+     */
+    @GetMapping("/batch")
+    public MappingJacksonValue batch(@RequestParam List<Long> ids,
+                                     @RequestParam(required = false) String fields) {
+        ApiFields selection = ApiFields.parse(fields, OeuvreDto.class);
+        List<OeuvreListRow> rows = oeuvreService.getOeuvreRowsByIds(ApiBatch.ids(ids));
+        Map<Long, Long> available = availability(rows, selection);
+        List<OeuvreDto> oeuvres = rows.stream()
+                .map(row -> OeuvreDto.of(row, available.get(row.id())))
+                .toList();
+        return selection.apply(oeuvres);
+    }
+
+    /**
+     * Возвращает произведение.
+     *
+     * @param id     идентификатор произведения
+     * @param fields выбор полей через запятую (по умолчанию — все)
+     * @return произведение или 404, если произведение не найдено
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<MappingJacksonValue> get(@PathVariable Long id,
+                                                   @RequestParam(required = false) String fields) {
+        ApiFields selection = ApiFields.parse(fields, OeuvreDto.class);
+        return ResponseEntity.of(oeuvreService.getOeuvreWithAuthor(id)
+                .map(oeuvre -> OeuvreDto.of(oeuvre,
+                        selection.includes(OeuvreDto.AVAILABLE_COPIES) ? copyService.countAvailable(id) : null))
+                .map(selection::apply));
+    }
+
+    private Map<Long, Long> availability(List<OeuvreListRow> rows, ApiFields selection) {
+        if (!selection.includes(OeuvreDto.AVAILABLE_COPIES)) {
+            return Map.of();
+        }
+        return copyService.countAvailable(rows.stream().map(OeuvreListRow::id).toList());
+    }
+}
@@ -0,0 +1,54 @@
+package com.library.controller.api;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.library.entity.Oeuvre;
+import com.library.repository.projection.OeuvreListRow;
+
+/**
+ * Произведение в ответах REST API.
+ * Пустые поля в ответ не попадают.
+ *
+ * @param id              идентификатор произведения
+ * @param title           название
+ * @param genre           жанр
+ * @param publishedYear   год публикации
+ * @param authorId        идентификатор автора
+ * @param authorName      имя автора
+ * @param availableCopies количество доступных для выдачи копий
+ */
+@JsonFilter(ApiFields.FILTER)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record OeuvreDto(Long id,
+                        String title,
+                        String genre,
+                        Integer publishedYear,
+                        Long authorId,
+                        String authorName,
+                        Long availableCopies) {
+
+    /** Имя поля с количеством доступных копий: оно вычисляется отдельным запросом. */
+    static final String AVAILABLE_COPIES = "availableCopies";
+
+    /**
+     * @param row             строка списка произведений
+     * @param availableCopies количество доступных копий (null — не запрашивалось)
+     * @return DTO
+     */
+    static OeuvreDto of(OeuvreListRow row, Long availableCopies) {
+        return new OeuvreDto(row.id(), row.title(), row.genre(), row.publishedYear(),
+                row.authorId(), row.authorName(), availableCopies);
+    }
+
+    /**
+     * @param oeuvre          произведение с инициализированным автором
+     * @param availableCopies количество доступных копий (null — не запрашивалось)
+     * @return DTO
+     */
+    static OeuvreDto of(Oeuvre oeuvre, Long availableCopies) {
+        return new OeuvreDto(oeuvre.getId(), oeuvre.getTitle(), oeuvre.getGenre(), oeuvre.getPublishedYear(),
+                oeuvre.getAuthor() == null ? null : oeuvre.getAuthor().getId(),
+                oeuvre.getAuthor() == null ? null : oeuvre.getAuthor().getName(),
+                availableCopies);
+    }
+}
@@ -6,8 +6,12 @@ import jakarta.validation.constraints.Past;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.format.annotation.DateTimeFormat;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
@@ -15,6 +19,9 @@ import java.util.List;
 /**
  * Сущность, представляющая автора литературных произведений.
  * Содержит основную информацию об авторе, а также связь с его произведениями.
+ *
+ * Сущность хранится в кэше второго уровня (регион author): авторов читают
+ * намного чаще, чем изменяют. Коллекция произведений не кэшируется.
  */
 @Getter
 @Setter
@@ -22,18 +29,39 @@ import java.util.List;
 @AllArgsConstructor
 @ToString(includeFieldNames = true)
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "author")
 @Table(name = "author")
 @Builder
 public class Author {
 
     /**
      * Уникальный идентификатор автора.
-     * Генерируется автоматически базой данных.
+     * Выделяется из последовательности author_seq блоками по 50 значений,
+     * поэтому вставки могут объединяться Hibernate в JDBC‑пакеты.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "author_seq")
+    @SequenceGenerator(name = "author_seq", sequenceName = "author_seq", allocationSize = 50)
     private Long id;
 
+    /**
+     * Номер версии записи: растёт при каждом изменении.
+     * Используется для оптимистической блокировки и как ETag страницы автора.
+     * Существующие строки получают 0 значением столбца по умолчанию.
+     */
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0 not null")
+    private Long version;
+
+    /**
+     * Время последнего изменения (заголовок Last-Modified).
+     */
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false,
+            columnDefinition = "timestamp(6) with time zone default current_timestamp not null")
+    private Instant updatedAt;
+
     /**
      * Полное имя автора.
      * Требования:
@@ -80,12 +108,15 @@ public class Author {
      * Список произведений, написанных автором.
      * Связь один-ко-многим.
      * orphanRemoval = true — удаляет произведения, если они больше не связаны с автором.
+     * Удаление автора с произведениями и копиями выполняет
+     * {@link com.library.service.AuthorService#deleteAuthor} операторами DELETE, без загрузки коллекции.
      */
     @OneToMany(
             mappedBy = "author",
             cascade = CascadeType.ALL,
             orphanRemoval = true
     )
+    @ToString.Exclude
     private List<Oeuvre> oeuvres;
 
     /** * Утилитный метод для добавления произведения к автору.
@@ -0,0 +1,60 @@
+package com.library.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+/**
+ * Счётчик сводной статистики каталога (таблица catalogue_stat).
+ *
+ * Каждая строка — одно значение вида «тип → ключ → количество», например
+ * «copy_status → A → 857142» или «genre → Роман → 1200».
+ * Значения обновляются приращениями, которые транзакции, изменяющие каталог, записывают
+ * в таблицу catalogue_stat_delta и которые периодически переносятся сюда,
+ * поэтому главная страница читает готовые числа, а не группирует таблицы.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "catalogue_stat")
+public class CatalogueStat {
+
+    /**
+     * Тип и ключ счётчика.
+     */
+    @EmbeddedId
+    private Key id;
+
+    /**
+     * Текущее значение счётчика.
+     */
+    @Column(nullable = false)
+    private long value;
+
+    /**
+     * Составной ключ счётчика.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    @Embeddable
+    public static class Key implements Serializable {
+
+        /**
+         * Тип счётчика: total, copy_status, genre, decade, author_copies.
+         */
+        @Column(name = "kind", nullable = false, length = 32)
+        private String kind;
+
+        /**
+         * Ключ внутри типа: название раздела, код статуса, жанр, десятилетие или идентификатор автора.
+         */
+        @Column(name = "stat_key", nullable = false)
+        private String key;
+    }
+}
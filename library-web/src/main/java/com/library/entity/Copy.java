@@ -4,6 +4,9 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
 
 /**
  * Сущность, представляющая экземпляр (копию) литературного произведения.
@@ -21,12 +24,31 @@ public class Copy {
 
     /**
      * Уникальный идентификатор копии.
-     * Генерируется автоматически базой данных.
+     * Выделяется из последовательности copy_seq блоками по 50 значений,
+     * поэтому вставки могут объединяться Hibernate в JDBC‑пакеты.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "copy_seq")
+    @SequenceGenerator(name = "copy_seq", sequenceName = "copy_seq", allocationSize = 50)
     private Long id;
 
+    /**
+     * Номер версии записи для оптимистической блокировки и ETag.
+     * Условные UPDATE статуса в {@link com.library.repository.CopyRepository}
+     * увеличивают его явно, так как выполняются в обход сущности.
+     */
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0 not null")
+    private Long version;
+
+    /**
+     * Время последнего изменения копии, включая смену статуса при выдаче и возврате.
+     */
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false,
+            columnDefinition = "timestamp(6) with time zone default current_timestamp not null")
+    private Instant updatedAt;
+
     /**
      * Инвентарный номер экземпляра.
      * Требования:
@@ -42,12 +64,19 @@ public class Copy {
 
     /**
      * Статус экземпляра.
-     * По умолчанию — «Доступно».
-     * Может принимать значения, определённые в CopyService.
+     * По умолчанию — {@link CopyStatus#AVAILABLE}.
+     * Хранится однобуквенным кодом; для запросов доступности
+     * есть индексы (oeuvre_id, status) и частичный индекс по доступным копиям.
+     *
+     * При обновлении сущности статус не записывается: его меняют только
+     * условные UPDATE в {@link com.library.repository.CopyRepository}
+     * («сменить статус, если он всё ещё прежний»), поэтому параллельные
+     * выдача и редактирование не затирают друг друга.
      */
-    @Column(nullable = false)
+    @Convert(converter = CopyStatusConverter.class)
+    @Column(nullable = false, length = 1, updatable = false)
     @Builder.Default
-    private String status = "Доступно";
+    private CopyStatus status = CopyStatus.AVAILABLE;
 
     /**
      *  Произведение, к которому относится экземпляр
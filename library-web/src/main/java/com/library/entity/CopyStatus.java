@@ -0,0 +1,50 @@
+package com.library.entity;
+
+/**
+ * Статус экземпляра произведения.
+ * В базе данных хранится однобуквенным кодом (см. {@link CopyStatusConverter}),
+ * а названия для пользователя задаются в messages.properties (ключи copy.status.*).
+ */
+public enum CopyStatus {
+
+    /** Экземпляр доступен для выдачи. */
+    AVAILABLE('A'),
+
+    /** Экземпляр выдан читателю. */
+    ON_LOAN('L'),
+
+    /** Экземпляр утерян. */
+    LOST('X'),
+
+    /** Экземпляр повреждён. */
+    DAMAGED('D');
+
+    private final char code;
+
+    CopyStatus(char code) {
+        this.code = code;
+    }
+
+    /**
+     * @return код статуса в базе данных
+     */
+    public char getCode() {
+        return code;
+    }
+
+    /**
+     * Возвращает статус по коду из базы данных.
+     *
+     * @param code код статуса
+     * @return статус
+     * @throws IllegalArgumentException если код неизвестен
+     */
+    public static CopyStatus fromCode(char code) {
+        for (CopyStatus status : values()) {
+            if (status.code == code) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Неизвестный код статуса копии: " + code);
+    }
+}
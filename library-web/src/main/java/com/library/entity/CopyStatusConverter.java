@@ -0,0 +1,22 @@
+package com.library.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Преобразует {@link CopyStatus} в однобуквенный код столбца copy.status (char(1)) и обратно.
+ * Код не зависит от порядка и имён констант перечисления.
+ */
+@Converter
+public class CopyStatusConverter implements AttributeConverter<CopyStatus, Character> {
+
+    @Override
+    public Character convertToDatabaseColumn(CopyStatus status) {
+        return status == null ? null : status.getCode();
+    }
+
+    @Override
+    public CopyStatus convertToEntityAttribute(Character code) {
+        return code == null ? null : CopyStatus.fromCode(code);
+    }
+}
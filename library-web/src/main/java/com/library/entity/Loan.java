@@ -0,0 +1,72 @@
+package com.library.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDate;
+
+/**
+ * Сущность, представляющая выдачу экземпляра читателю.
+ * Выдача открыта, пока не заполнена дата возврата.
+ * У копии может быть не больше одной открытой выдачи —
+ * это проверяет частичный уникальный индекс loan_open_copy_idx.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Builder
+@Table(name = "loan")
+public class Loan {
+
+    /**
+     * Уникальный идентификатор выдачи.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "loan_seq")
+    @SequenceGenerator(name = "loan_seq", sequenceName = "loan_seq", allocationSize = 50)
+    private Long id;
+
+    /**
+     * Выданный экземпляр.
+     * При удалении копии история её выдач удаляется базой данных.
+     */
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "copy_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Copy copy;
+
+    /**
+     * Читатель, получивший экземпляр.
+     * Требования:
+     * - не пустой;
+     * - длина не более 255 символов.
+     */
+    @NotBlank(message = "Укажите читателя")
+    @Size(max = 255, message = "Имя читателя не должно содержать более 255 символов")
+    @Column(nullable = false)
+    private String borrower;
+
+    /**
+     * Дата выдачи.
+     */
+    @Column(name = "loan_date", nullable = false)
+    private LocalDate loanDate;
+
+    /**
+     * Дата, до которой экземпляр нужно вернуть.
+     */
+    @Column(name = "due_date", nullable = false)
+    private LocalDate dueDate;
+
+    /**
+     * Дата возврата; null — экземпляр ещё у читателя.
+     */
+    @Column(name = "return_date")
+    private LocalDate returnDate;
+}
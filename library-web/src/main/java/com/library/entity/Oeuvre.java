@@ -6,31 +6,58 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.util.List;
 
 /**
  * Сущность, представляющая литературное произведение.
  * Содержит основную информацию о произведении, включая название,
  * жанр, год публикации и связь с автором.
+ *
+ * Сущность хранится в кэше второго уровня (регион oeuvre) вместе с идентификатором
+ * автора, поэтому переход к автору тоже обслуживается кэшем (регион author).
+ * Коллекция копий не кэшируется.
  */
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "oeuvre")
 @Builder
 @Table(name = "oeuvre")
 public class Oeuvre {
 
     /**
      * Уникальный идентификатор произведения.
-     * Генерируется автоматически базой данных.
+     * Выделяется из последовательности oeuvre_seq блоками по 50 значений,
+     * поэтому вставки могут объединяться Hibernate в JDBC‑пакеты.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "oeuvre_seq")
+    @SequenceGenerator(name = "oeuvre_seq", sequenceName = "oeuvre_seq", allocationSize = 50)
     private Long id;
 
+    /**
+     * Номер версии записи для оптимистической блокировки и ETag.
+     */
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0 not null")
+    private Long version;
+
+    /**
+     * Время последнего изменения произведения.
+     */
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false,
+            columnDefinition = "timestamp(6) with time zone default current_timestamp not null")
+    private Instant updatedAt;
+
     /**
      * Название произведения.
      * Требования:
@@ -73,7 +100,8 @@ public class Oeuvre {
 
     /**
      * Список экземпляров произведения.
-     * При удалении произведения все его экземпляры также удаляются.
+     * При удалении произведения все его экземпляры также удаляются —
+     * {@link com.library.service.OeuvreService#deleteOeuvre} делает это одним оператором DELETE.
      */
     @OneToMany( mappedBy = "oeuvre", cascade = CascadeType.ALL, orphanRemoval = true )
     private List<Copy> copies;
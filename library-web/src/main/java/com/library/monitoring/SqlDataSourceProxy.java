@@ -0,0 +1,48 @@
+package com.library.monitoring;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Оборачивает пул соединений прокси datasource-proxy, через который проходят все операторы:
+ * запросы Hibernate, Spring Data и JdbcTemplate.
+ * Прокси передаёт операторы в {@link SqlStatementListener}.
+ *
+ * Строки результатов считаются, только если задано {@value #COUNT_ROWS_PROPERTY}=true:
+ * тогда прокси оборачивает и каждый ResultSet, и каждый вызов next() проходит через слушатель,
+ * что заметно замедляет выгрузки и потоковые страницы на миллионах строк.
+ */
+@Component
+public class SqlDataSourceProxy implements BeanPostProcessor {
+
+    /** Свойство, включающее подсчёт прочитанных строк (метрика library.sql.rows). */
+    public static final String COUNT_ROWS_PROPERTY = "library.sql.count-rows";
+
+    private final boolean countRows;
+
+    /**
+     * @param environment окружение со свойством {@value #COUNT_ROWS_PROPERTY}
+     */
+    public SqlDataSourceProxy(Environment environment) {
+        this.countRows = environment.getProperty(COUNT_ROWS_PROPERTY, Boolean.class, false);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+            SqlStatementListener listener = new SqlStatementListener();
+            ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(beanName, dataSource)
+                    .listener(listener);
+            if (countRows) {
+                builder.methodListener(listener).proxyResultSet();
+            }
+            return builder.build();
+        }
+        return bean;
+    }
+}
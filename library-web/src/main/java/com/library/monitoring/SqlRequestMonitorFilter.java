@@ -0,0 +1,95 @@
+package com.library.monitoring;
+
+import com.library.controller.SectionObservationConvention;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Считает SQL-операторы и прочитанные строки каждого HTTP-запроса, включая отрисовку
+ * шаблона (ленивые загрузки в представлении тоже попадают в счёт).
+ *
+ * По каждому методу контроллера публикуются метрики library.sql.statements и, если включён подсчёт строк
+ * ({@value SqlDataSourceProxy#COUNT_ROWS_PROPERTY}), library.sql.rows (тег handler). Запросы, в которых один и тот же оператор повторяется
+ * {@value #REPEATED_THRESHOLD} раз и больше (признак N+1) или выполнено больше
+ * {@value #STATEMENT_WARNING} операторов, пишутся в журнал с именем обработчика
+ * и учитываются в счётчике library.sql.offenders.
+ */
+@Slf4j
+@Component
+public class SqlRequestMonitorFilter extends OncePerRequestFilter {
+
+    /** Столько выполнений одного оператора за запрос считаются проблемой N+1. */
+    static final int REPEATED_THRESHOLD = 5;
+
+    /** Запросы с большим количеством операторов пишутся в журнал. */
+    static final int STATEMENT_WARNING = 20;
+
+    private final MeterRegistry meterRegistry;
+    private final boolean countRows;
+
+    /**
+     * @param meterRegistry реестр метрик
+     * @param environment   окружение со свойством {@value SqlDataSourceProxy#COUNT_ROWS_PROPERTY}
+     */
+    public SqlRequestMonitorFilter(MeterRegistry meterRegistry, Environment environment) {
+        this.meterRegistry = meterRegistry;
+        this.countRows = environment.getProperty(SqlDataSourceProxy.COUNT_ROWS_PROPERTY, Boolean.class, false);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlRequestStats stats = SqlRequestStats.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            SqlRequestStats.finish();
+            request.setAttribute(SqlRequestStats.ATTRIBUTE, stats);
+            if (stats.statements() > 0) {
+                record(SectionObservationConvention.handlerName(request), request, stats);
+            }
+        }
+    }
+
+    private void record(String handler, HttpServletRequest request, SqlRequestStats stats) {
+        DistributionSummary.builder("library.sql.statements")
+                .description("SQL-операторы за HTTP-запрос")
+                .tag("handler", handler)
+                .register(meterRegistry)
+                .record(stats.statements());
+        if (countRows) {
+            DistributionSummary.builder("library.sql.rows")
+                    .description("Строки, прочитанные за HTTP-запрос")
+                    .tag("handler", handler)
+                    .register(meterRegistry)
+                    .record(stats.rows());
+        }
+
+        Map<String, Integer> repeated = stats.repeated(REPEATED_THRESHOLD);
+        if (repeated.isEmpty() && stats.statements() <= STATEMENT_WARNING) {
+            return;
+        }
+        meterRegistry.counter("library.sql.offenders", "handler", handler,
+                "reason", repeated.isEmpty() ? "statements" : "repeated").increment();
+        if (repeated.isEmpty()) {
+            log.warn("{} {} ({}): {} SQL-операторов, {} строк",
+                    request.getMethod(), request.getRequestURI(), handler, stats.statements(), stats.rows());
+        } else {
+            Map.Entry<String, Integer> worst = repeated.entrySet().iterator().next();
+            log.warn("{} {} ({}): {} SQL-операторов, {} строк; возможно N+1 — оператор выполнен {} раз: {}",
+                    request.getMethod(), request.getRequestURI(), handler, stats.statements(), stats.rows(),
+                    worst.getValue(), worst.getKey());
+        }
+    }
+}
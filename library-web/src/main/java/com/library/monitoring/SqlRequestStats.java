@@ -0,0 +1,108 @@
+package com.library.monitoring;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Счётчики SQL одного HTTP-запроса: количество операторов, прочитанных строк
+ * и повторов операторов одинаковой формы.
+ *
+ * Счётчики текущего запроса хранятся в потоке, который его обрабатывает
+ * (см. {@link SqlRequestMonitorFilter}); после ответа они доступны в атрибуте запроса
+ * {@link #ATTRIBUTE}, в том числе из тестов MockMvc.
+ */
+public final class SqlRequestStats {
+
+    /** Атрибут запроса, в котором остаются счётчики после ответа. */
+    public static final String ATTRIBUTE = SqlRequestStats.class.getName();
+
+    private static final ThreadLocal<SqlRequestStats> CURRENT = new ThreadLocal<>();
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private int statements;
+    private long rows;
+    private final Map<String, Integer> shapes = new LinkedHashMap<>();
+
+    /**
+     * Начинает подсчёт для запроса, обрабатываемого текущим потоком.
+     *
+     * @return счётчики запроса
+     */
+    static SqlRequestStats start() {
+        SqlRequestStats stats = new SqlRequestStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * @return счётчики запроса текущего потока или null вне HTTP-запроса
+     */
+    static SqlRequestStats current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Завершает подсчёт в текущем потоке.
+     */
+    static void finish() {
+        CURRENT.remove();
+    }
+
+    void statement(String sql) {
+        statements++;
+        shapes.merge(shape(sql), 1, Integer::sum);
+    }
+
+    void row() {
+        rows++;
+    }
+
+    /**
+     * @return количество выполненных операторов (пакет JDBC считается одним оператором на каждый SQL)
+     */
+    public int statements() {
+        return statements;
+    }
+
+    /**
+     * @return количество строк, прочитанных из результатов запросов
+     *         (0, если подсчёт строк не включён свойством {@value SqlDataSourceProxy#COUNT_ROWS_PROPERTY})
+     */
+    public long rows() {
+        return rows;
+    }
+
+    /**
+     * Возвращает операторы, выполненные не менее {@code threshold} раз, — признак проблемы N+1.
+     *
+     * @param threshold наименьшее количество повторов
+     * @return форма оператора и количество повторов, по убыванию
+     */
+    public Map<String, Integer> repeated(int threshold) {
+        if (statements < threshold) {
+            return Collections.emptyMap();
+        }
+        return shapes.entrySet().stream()
+                .filter(shape -> shape.getValue() >= threshold)
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+    }
+
+    /**
+     * Приводит оператор к форме без значений: литералы заменяются на ?, списки параметров IN сворачиваются.
+     * Операторы одной формы различаются только значениями параметров.
+     */
+    static String shape(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = PARAMETER_LIST.matcher(shape).replaceAll("(?...)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+}
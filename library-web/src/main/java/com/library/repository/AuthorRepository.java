@@ -1,9 +1,24 @@
 package com.library.repository;
 
 import com.library.entity.Author;
+import com.library.repository.projection.AuthorListRow;
+import com.library.repository.projection.LookupItem;
+import com.library.repository.projection.VersionStamp;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 /**
  * Репозиторий для работы с сущностью {@link Author}.
  * Предоставляет стандартные CRUD‑операции и взаимодействие с базой данных
@@ -18,4 +33,159 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface AuthorRepository extends JpaRepository<Author, Long> {
+
+    /**
+     * Возвращает строки списка авторов с идентификатором больше заданного
+     * в порядке возрастания идентификатора (курсорная пагинация вперёд).
+     *
+     * @param id       курсор — идентификатор последней показанной записи
+     * @param pageable ограничение размера выборки
+     * @return срез строк списка
+     */
+    @Query("select new com.library.repository.projection.AuthorListRow(a.id, a.name, a.birthDate, a.nationality) "
+            + "from Author a "
+            + "where a.id > :id order by a.id asc")
+    Slice<AuthorListRow> findListRowsAfter(@Param("id") Long id, Pageable pageable);
+
+    /**
+     * Возвращает строки списка авторов с идентификатором меньше заданного
+     * в порядке убывания идентификатора (курсорная пагинация назад).
+     *
+     * @param id       курсор — идентификатор первой показанной записи
+     * @param pageable ограничение размера выборки
+     * @return срез строк списка
+     */
+    @Query("select new com.library.repository.projection.AuthorListRow(a.id, a.name, a.birthDate, a.nationality) "
+            + "from Author a "
+            + "where a.id < :id order by a.id desc")
+    Slice<AuthorListRow> findListRowsBefore(@Param("id") Long id, Pageable pageable);
+
+    /**
+     * Возвращает строки списка авторов с указанными идентификаторами.
+     *
+     * @param ids идентификаторы авторов
+     * @return найденные строки в порядке возрастания идентификатора
+     */
+    @Query("select new com.library.repository.projection.AuthorListRow(a.id, a.name, a.birthDate, a.nationality) "
+            + "from Author a "
+            + "where a.id in :ids order by a.id asc")
+    List<AuthorListRow> findListRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Возвращает отметку версии автора для условного GET страницы просмотра.
+     *
+     * @param id идентификатор автора
+     * @return Optional с отметкой или пустой Optional, если автор не найден
+     */
+    @Query(value = "select concat_ws('.', a.id, a.version) as tag, "
+            + "cast(floor(extract(epoch from a.updated_at) * 1000) as bigint) as last_modified "
+            + "from author a where a.id = :id", nativeQuery = true)
+    Optional<VersionStamp> findVersionStampById(@Param("id") Long id);
+
+    /**
+     * Возвращает сводную отметку версии страницы списка авторов:
+     * количество, сумму версий и границы идентификаторов строк страницы
+     * вместе с общим количеством авторов.
+     * Времени изменения у страницы нет: удалённая строка пропадает из окна и не сдвигает
+     * максимум updated_at оставшихся, поэтому страница сравнивается только по ETag.
+     * Окно строк повторяет {@link com.library.service.KeysetPage#load}: назад от {@code before},
+     * а если строк перед курсором не хватает на страницу — первая страница.
+     *
+     * @param after  курсор вперёд (0 — с начала)
+     * @param before курсор назад (0 — не задан)
+     * @param limit  количество строк, читаемых загрузкой страницы
+     * @return строка отметки версии (основа ETag)
+     */
+    @Query(value = "with b as (select id, version from author "
+            + "where id < :before order by id desc limit :limit), "
+            + "f as (select id, version from author "
+            + "where id > :after order by id limit :limit), "
+            + "w as (select * from b union all select * from f where (select count(*) from b) < :limit) "
+            + "select concat_ws('.', count(*), sum(version), min(id), max(id), "
+            + "(select coalesce(sum(t.value), 0) from (select s.value from catalogue_stat s where s.kind = 'total' and s.stat_key = 'authors' "
+            + "union all select d.delta from catalogue_stat_delta d where d.kind = 'total' and d.stat_key = 'authors') t)) as tag "
+            + "from w", nativeQuery = true)
+    String findPageVersionTag(@Param("after") long after,
+                              @Param("before") long before,
+                              @Param("limit") int limit);
+
+    /**
+     * Блокирует строку автора до конца транзакции (FOR UPDATE). Блокировка несовместима
+     * с проверкой внешнего ключа, поэтому новые произведения автора ждут её снятия.
+     *
+     * @param id идентификатор автора
+     * @return идентификатор или пустой Optional, если автора нет
+     */
+    @Query(value = "select a.id from author a where a.id = :id for update", nativeQuery = true)
+    Optional<Long> lockById(@Param("id") Long id);
+
+    /**
+     * Удаляет автора оператором DELETE, без загрузки его произведений.
+     * Произведения автора должны быть удалены заранее.
+     *
+     * @param id идентификатор автора
+     * @return количество удалённых авторов (0 или 1)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Author a where a.id = :id")
+    int deleteRowById(@Param("id") Long id);
+
+    /**
+     * Ищет авторов по точному совпадению имени.
+     * Используется при пакетном импорте для сопоставления авторов из файла с существующими.
+     *
+     * @param names имена авторов
+     * @return найденные авторы
+     */
+    List<Author> findByNameIn(Collection<String> names);
+
+    /**
+     * Подсказки по началу имени автора (без учёта регистра).
+     * Использует индекс author_name_prefix_idx (lower(name) text_pattern_ops): индекс и отбирает строки,
+     * и задаёт их порядок (оператор ~<~ класса text_pattern_ops — побайтовое сравнение),
+     * поэтому чтение заканчивается на {@code limit} строках без сортировки всех совпадений.
+     * Результат кэшируется в кэше запросов до изменения таблицы author.
+     *
+     * @param prefix начало имени
+     * @param limit  максимальное количество подсказок
+     * @return подсказки, упорядоченные по имени
+     */
+    @Query(value = "select a.id as id, a.name as label, a.nationality as detail "
+            + "from author a "
+            + "where lower(a.name) like (lower(:#{escape(#prefix)}) || '%') escape :#{escapeCharacter()} "
+            + "order by lower(a.name) using ~<~ "
+            + "limit :limit",
+            nativeQuery = true)
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "author")})
+    List<LookupItem> lookupByNamePrefix(@Param("prefix") String prefix, @Param("limit") int limit);
+
+    /**
+     * Подсказки по вхождению подстроки в имя автора (без учёта регистра).
+     * Совпадения с начала имени идут первыми.
+     * Совпадения отбирает триграммный индекс author_name_trgm_idx; из них сортируются только
+     * {@code candidates} самых похожих на фрагмент (word_similarity), а не все совпадения:
+     * у короткого фрагмента их может быть большая часть таблицы.
+     * Результат кэшируется в кэше запросов до изменения таблицы author.
+     *
+     * @param fragment   фрагмент имени
+     * @param candidates количество самых похожих совпадений, из которых выбираются подсказки
+     * @param limit      максимальное количество подсказок
+     * @return подсказки
+     */
+    @Query(value = "select c.id as id, c.name as label, c.nationality as detail "
+            + "from (select a.id, a.name, a.nationality "
+            + "      from author a "
+            + "      where lower(a.name) like ('%' || lower(:#{escape(#fragment)}) || '%') escape :#{escapeCharacter()} "
+            + "      order by word_similarity(lower(:fragment), lower(a.name)) desc "
+            + "      limit :candidates) c "
+            + "order by case when lower(c.name) like (lower(:#{escape(#fragment)}) || '%') "
+            + "escape :#{escapeCharacter()} then 0 else 1 end, c.name "
+            + "limit :limit",
+            nativeQuery = true)
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "author")})
+    List<LookupItem> lookupByNameFragment(@Param("fragment") String fragment,
+                                          @Param("candidates") int candidates,
+                                          @Param("limit") int limit);
 }
@@ -0,0 +1,115 @@
+package com.library.repository;
+
+import com.library.entity.CatalogueStat;
+import com.library.repository.projection.AuthorCopiesRow;
+import com.library.repository.projection.CatalogueStatRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Репозиторий счётчиков сводной статистики каталога {@link CatalogueStat}.
+ */
+@Repository
+public interface CatalogueStatRepository extends JpaRepository<CatalogueStat, CatalogueStat.Key> {
+
+    /**
+     * Возвращает значение одного счётчика вместе с ещё не перенесёнными приращениями.
+     *
+     * @param kind тип счётчика
+     * @param key  ключ внутри типа
+     * @return значение (0, если счётчик ещё не создан)
+     */
+    @Query(value = "select coalesce((select s.value from catalogue_stat s where s.kind = :kind and s.stat_key = :key), 0) "
+            + "+ coalesce((select cast(sum(d.delta) as bigint) from catalogue_stat_delta d "
+            + "where d.kind = :kind and d.stat_key = :key), 0)",
+            nativeQuery = true)
+    long findValue(@Param("kind") String kind, @Param("key") String key);
+
+    /**
+     * Возвращает ненулевые счётчики указанных типов вместе с ещё не перенесёнными приращениями.
+     *
+     * @param kinds типы счётчиков
+     * @return значения счётчиков
+     */
+    @Query(value = "select v.kind, v.stat_key, cast(sum(v.value) as bigint) as value "
+            + "from (select s.kind, s.stat_key, s.value from catalogue_stat s where s.kind in :kinds "
+            + "union all select d.kind, d.stat_key, d.delta from catalogue_stat_delta d where d.kind in :kinds) v "
+            + "group by v.kind, v.stat_key "
+            + "having sum(v.value) <> 0",
+            nativeQuery = true)
+    List<CatalogueStatRow> findRowsByKinds(@Param("kinds") Collection<String> kinds);
+
+    /**
+     * Возвращает счётчики типа с наибольшими значениями с учётом ещё не перенесённых приращений.
+     * Из catalogue_stat по индексу catalogue_stat_kind_value_idx читается {@code limit} строк
+     * плюс по одной на каждый ключ с приращениями: приращения могут изменить порядок только этих ключей,
+     * поэтому остальные строки за пределами выборки в первые {@code limit} не попадут.
+     *
+     * @param kind  тип счётчика
+     * @param limit количество строк
+     * @return счётчики по убыванию значения
+     */
+    @Query(value = "with d as (select stat_key, cast(sum(delta) as bigint) as delta from catalogue_stat_delta "
+            + "where kind = :kind group by stat_key), "
+            + "t as (select stat_key from catalogue_stat where kind = :kind and value > 0 "
+            + "order by value desc limit :limit + (select count(*) from d)), "
+            + "v as (select k.stat_key, coalesce(s.value, 0) + coalesce(d.delta, 0) as value "
+            + "from (select stat_key from t union select stat_key from d) k "
+            + "left join catalogue_stat s on s.kind = :kind and s.stat_key = k.stat_key "
+            + "left join d on d.stat_key = k.stat_key) "
+            + "select :kind as kind, v.stat_key, v.value from v "
+            + "where v.value > 0 "
+            + "order by v.value desc, v.stat_key "
+            + "limit :limit",
+            nativeQuery = true)
+    List<CatalogueStatRow> findTopByKind(@Param("kind") String kind, @Param("limit") int limit);
+
+    /**
+     * Возвращает авторов с наибольшим количеством копий и их имена
+     * с учётом ещё не перенесённых приращений (так же, как {@link #findTopByKind(String, int)}).
+     *
+     * @param limit количество авторов
+     * @return авторы по убыванию количества копий
+     */
+    @Query(value = "with d as (select stat_key, cast(sum(delta) as bigint) as delta from catalogue_stat_delta "
+            + "where kind = 'author_copies' group by stat_key), "
+            + "t as (select stat_key from catalogue_stat where kind = 'author_copies' and value > 0 "
+            + "order by value desc limit :limit + (select count(*) from d)), "
+            + "v as (select k.stat_key, coalesce(s.value, 0) + coalesce(d.delta, 0) as value "
+            + "from (select stat_key from t union select stat_key from d) k "
+            + "left join catalogue_stat s on s.kind = 'author_copies' and s.stat_key = k.stat_key "
+            + "left join d on d.stat_key = k.stat_key) "
+            + "select a.id, a.name, v.value "
+            + "from v join author a on a.id = cast(v.stat_key as bigint) "
+            + "where v.value > 0 "
+            + "order by v.value desc, a.id "
+            + "limit :limit",
+            nativeQuery = true)
+    List<AuthorCopiesRow> findTopAuthorsByCopies(@Param("limit") int limit);
+
+    /**
+     * Переносит накопленные приращения в счётчики (функция catalogue_stat_fold).
+     *
+     * @return количество изменённых счётчиков
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "catalogue_stat"))
+    @Query(value = "select catalogue_stat_fold()", nativeQuery = true)
+    long fold();
+
+    /**
+     * Пересчитывает все счётчики по таблицам каталога (функция catalogue_stat_recount).
+     *
+     * @return количество записанных счётчиков
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "catalogue_stat"))
+    @Query(value = "select catalogue_stat_recount()", nativeQuery = true)
+    long recount();
+}
@@ -1,25 +1,394 @@
 package com.library.repository;
 
 import com.library.entity.Copy;
+import com.library.entity.CopyStatus;
+import com.library.repository.projection.CopyBulkRow;
+import com.library.repository.projection.CopyExportRow;
+import com.library.repository.projection.CopyListRow;
+import com.library.repository.projection.InventoryNumberRow;
+import com.library.repository.projection.OeuvreAvailability;
+import com.library.repository.projection.StatusCount;
+import com.library.repository.projection.VersionStamp;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
 /**
  * Репозиторий для работы с сущностью {@link Copy}.
  * Предоставляет стандартные CRUD‑операции и взаимодействие с базой данных
  * через Spring Data JPA.
  *
- * Дополнительно содержит метод для проверки уникальности
- * инвентарного номера экземпляра.
+ * Уникальность инвентарного номера обеспечивает ограничение в базе данных;
+ * для быстрого поиска по номеру используется {@link com.library.service.InventoryNumberIndex}.
  */
 @Repository
 public interface CopyRepository extends JpaRepository<Copy, Long> {
 
     /**
-     * Проверяет, существует ли копия с указанным инвентарным номером.
+     * Ищет копию по идентификатору вместе с произведением одним запросом.
+     *
+     * @param id идентификатор копии
+     * @return Optional с найденной копией
+     */
+    @EntityGraph(attributePaths = "oeuvre")
+    Optional<Copy> findWithOeuvreById(Long id);
+
+    /**
+     * Возвращает строки списка копий с идентификатором больше заданного
+     * в порядке возрастания идентификатора (курсорная пагинация вперёд).
+     * Название произведения выбирается соединением в том же запросе.
+     *
+     * @param id       курсор — идентификатор последней показанной записи
+     * @param pageable ограничение размера выборки
+     * @return срез строк списка
+     */
+    @Query("select new com.library.repository.projection.CopyListRow(c.id, o.id, o.title, c.inventoryNumber, c.status) "
+            + "from Copy c left join c.oeuvre o "
+            + "where c.id > :id order by c.id asc")
+    Slice<CopyListRow> findListRowsAfter(@Param("id") Long id, Pageable pageable);
+
+    /**
+     * Возвращает строки списка копий с идентификатором меньше заданного
+     * в порядке убывания идентификатора (курсорная пагинация назад).
+     *
+     * @param id       курсор — идентификатор первой показанной записи
+     * @param pageable ограничение размера выборки
+     * @return срез строк списка
+     */
+    @Query("select new com.library.repository.projection.CopyListRow(c.id, o.id, o.title, c.inventoryNumber, c.status) "
+            + "from Copy c left join c.oeuvre o "
+            + "where c.id < :id order by c.id desc")
+    Slice<CopyListRow> findListRowsBefore(@Param("id") Long id, Pageable pageable);
+
+    /**
+     * Возвращает строки списка копий с указанными идентификаторами.
+     *
+     * @param ids идентификаторы копий
+     * @return найденные строки в порядке возрастания идентификатора
+     */
+    @Query("select new com.library.repository.projection.CopyListRow(c.id, o.id, o.title, c.inventoryNumber, c.status) "
+            + "from Copy c left join c.oeuvre o "
+            + "where c.id in :ids order by c.id asc")
+    List<CopyListRow> findListRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Возвращает отметку версии страницы просмотра копии: версии копии и её произведения.
+     * Выдача и возврат меняют статус копии и, значит, её версию,
+     * поэтому отдельная отметка истории выдач не нужна.
+     *
+     * @param id идентификатор копии
+     * @return Optional с отметкой или пустой Optional, если копия не найдена
+     */
+    @Query(value = "select concat_ws('.', c.id, c.version, o.id, o.version) as tag, "
+            + "cast(floor(extract(epoch from greatest(c.updated_at, o.updated_at)) * 1000) as bigint) as last_modified "
+            + "from copy c left join oeuvre o on o.id = c.oeuvre_id "
+            + "where c.id = :id", nativeQuery = true)
+    Optional<VersionStamp> findVersionStampById(@Param("id") Long id);
+
+    /**
+     * Возвращает сводную отметку версии страницы списка копий:
+     * версии строк страницы и их произведений и общее количество копий.
+     * Окно строк повторяет {@link com.library.service.KeysetPage#load}.
+     * Времени изменения у страницы нет: удаление копии не сдвигает максимум updated_at
+     * оставшихся строк, поэтому страница сравнивается только по ETag.
+     *
+     * @param after  курсор вперёд (0 — с начала)
+     * @param before курсор назад (0 — не задан)
+     * @param limit  количество строк, читаемых загрузкой страницы
+     * @return строка отметки версии (основа ETag)
+     */
+    @Query(value = "with b as (select id, version, oeuvre_id from copy "
+            + "where id < :before order by id desc limit :limit), "
+            + "f as (select id, version, oeuvre_id from copy "
+            + "where id > :after order by id limit :limit), "
+            + "w as (select * from b union all select * from f where (select count(*) from b) < :limit) "
+            + "select concat_ws('.', count(*), sum(w.version), min(w.id), max(w.id), sum(o.version), "
+            + "(select coalesce(sum(t.value), 0) from (select s.value from catalogue_stat s where s.kind = 'total' and s.stat_key = 'copies' "
+            + "union all select d.delta from catalogue_stat_delta d where d.kind = 'total' and d.stat_key = 'copies') t)) as tag "
+            + "from w left join oeuvre o on o.id = w.oeuvre_id", nativeQuery = true)
+    String findPageVersionTag(@Param("after") long after,
+                              @Param("before") long before,
+                              @Param("limit") int limit);
+
+    /**
+     * Возвращает те из переданных инвентарных номеров, которые уже заняты.
+     * Позволяет проверить уникальность целой пачки номеров одним запросом.
+     *
+     * @param inventoryNumbers проверяемые инвентарные номера
+     * @return занятые инвентарные номера
+     */
+    @Query("select c.inventoryNumber from Copy c where c.inventoryNumber in :inventoryNumbers")
+    List<String> findExistingInventoryNumbers(@Param("inventoryNumbers") Collection<String> inventoryNumbers);
+
+    /**
+     * Потоково выбирает все копии вместе с названием произведения и именем автора
+     * в порядке возрастания идентификатора.
+     * Строки читаются курсором порциями по 1000 и не попадают в контекст постоянства.
+     * Поток должен использоваться внутри транзакции и быть закрыт после чтения.
+     *
+     * @return поток строк выгрузки
+     */
+    @Query("select new com.library.repository.projection.CopyExportRow("
+            + "c.id, c.inventoryNumber, c.status, o.id, o.title, a.name) "
+            + "from Copy c left join c.oeuvre o left join o.author a "
+            + "order by c.id asc")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<CopyExportRow> streamExportRows();
+
+    /**
+     * Возвращает строку списка для копии с указанным идентификатором.
+     *
+     * @param id идентификатор копии
+     * @return Optional со строкой списка
+     */
+    @Query("select new com.library.repository.projection.CopyListRow(c.id, o.id, o.title, c.inventoryNumber, c.status) "
+            + "from Copy c left join c.oeuvre o "
+            + "where c.id = :id")
+    Optional<CopyListRow> findListRowById(@Param("id") Long id);
+
+    /**
+     * Возвращает строку списка для копии с указанным инвентарным номером.
+     *
+     * @param inventoryNumber инвентарный номер
+     * @return Optional со строкой списка
+     */
+    @Query("select new com.library.repository.projection.CopyListRow(c.id, o.id, o.title, c.inventoryNumber, c.status) "
+            + "from Copy c left join c.oeuvre o "
+            + "where c.inventoryNumber = :inventoryNumber")
+    Optional<CopyListRow> findListRowByInventoryNumber(@Param("inventoryNumber") String inventoryNumber);
+
+    /**
+     * Потоково выбирает пары «идентификатор — инвентарный номер» всех копий
+     * для заполнения индекса в памяти.
+     * Поток должен использоваться внутри транзакции и быть закрыт после чтения.
+     *
+     * @return поток пар
+     */
+    @Query("select new com.library.repository.projection.InventoryNumberRow(c.id, c.inventoryNumber) from Copy c")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<InventoryNumberRow> streamInventoryNumbers();
+
+    /**
+     * Считает доступные копии произведения.
+     * Использует частичный индекс copy_available_oeuvre_idx (только строки со статусом 'A').
+     *
+     * @param oeuvreId идентификатор произведения
+     * @return количество доступных копий
+     */
+    @Query("select count(c) from Copy c "
+            + "where c.oeuvre.id = :oeuvreId and c.status = com.library.entity.CopyStatus.AVAILABLE")
+    long countAvailableByOeuvreId(@Param("oeuvreId") Long oeuvreId);
+
+    /**
+     * Считает выданные копии произведения.
+     *
+     * @param oeuvreId идентификатор произведения
+     * @return количество выданных копий
+     */
+    @Query("select count(c) from Copy c "
+            + "where c.oeuvre.id = :oeuvreId and c.status = com.library.entity.CopyStatus.ON_LOAN")
+    long countOnLoanByOeuvreId(@Param("oeuvreId") Long oeuvreId);
+
+    /**
+     * Считает выданные копии всех произведений автора.
+     *
+     * @param authorId идентификатор автора
+     * @return количество выданных копий
+     */
+    @Query("select count(c) from Copy c "
+            + "where c.oeuvre.id in (select o.id from Oeuvre o where o.author.id = :authorId) "
+            + "and c.status = com.library.entity.CopyStatus.ON_LOAN")
+    long countOnLoanByAuthorId(@Param("authorId") Long authorId);
+
+    /**
+     * Считает доступные копии для набора произведений одним запросом.
+     * Произведения без доступных копий в результат не попадают.
+     *
+     * @param oeuvreIds идентификаторы произведений
+     * @return количество доступных копий по произведениям
+     */
+    @Query("select new com.library.repository.projection.OeuvreAvailability(c.oeuvre.id, count(c)) "
+            + "from Copy c "
+            + "where c.oeuvre.id in :oeuvreIds and c.status = com.library.entity.CopyStatus.AVAILABLE "
+            + "group by c.oeuvre.id")
+    List<OeuvreAvailability> findAvailabilityByOeuvreIds(@Param("oeuvreIds") Collection<Long> oeuvreIds);
+
+    /**
+     * Меняет статус копии, только если он всё ещё равен ожидаемому.
+     * Проверка и запись выполняются одним оператором UPDATE под строковой
+     * блокировкой PostgreSQL, поэтому из нескольких параллельных вызовов
+     * с одним и тем же ожидаемым статусом успешен ровно один.
+     * Версия и время изменения копии обновляются тем же оператором.
+     *
+     * @param id       идентификатор копии
+     * @param expected ожидаемый текущий статус
+     * @param status   новый статус
+     * @return 1 — статус изменён, 0 — копии нет или её статус уже другой
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update Copy c set c.status = :status, c.version = c.version + 1, c.updatedAt = current_timestamp "
+            + "where c.id = :id and c.status = :expected")
+    int updateStatus(@Param("id") Long id,
+                     @Param("expected") CopyStatus expected,
+                     @Param("status") CopyStatus status);
+
+    /**
+     * Выбирает копии для массовой операции и блокирует их строки до конца транзакции,
+     * чтобы выдача или возврат не изменили статус между чтением и записью.
+     *
+     * @param ids идентификаторы копий
+     * @return найденные копии в порядке возрастания идентификатора
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select new com.library.repository.projection.CopyBulkRow(c.id, c.inventoryNumber, c.status, o.author.id) "
+            + "from Copy c left join c.oeuvre o "
+            + "where c.id in :ids "
+            + "order by c.id")
+    List<CopyBulkRow> lockBulkRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Меняет статус набора копий одним оператором UPDATE.
+     * Копии должны быть заранее заблокированы {@link #lockBulkRowsByIdIn}.
+     *
+     * @param ids    идентификаторы копий
+     * @param status новый статус
+     * @return количество изменённых копий
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Copy c set c.status = :status, c.version = c.version + 1, c.updatedAt = current_timestamp "
+            + "where c.id in :ids")
+    int updateStatusByIdIn(@Param("ids") Collection<Long> ids, @Param("status") CopyStatus status);
+
+    /**
+     * Удаляет набор копий одним оператором DELETE.
+     * История выдач удаляется базой данных (ON DELETE CASCADE).
+     *
+     * @param ids идентификаторы копий
+     * @return количество удалённых копий
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Copy c where c.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Возвращает наибольший инвентарный номер из диапазона
+     * (для продолжения нумерации при массовом добавлении копий).
+     *
+     * @param low    нижняя граница диапазона
+     * @param high   верхняя граница диапазона
+     * @param length длина номера
+     * @return наибольший номер или null, если диапазон пуст
+     */
+    @Query("select max(c.inventoryNumber) from Copy c "
+            + "where c.inventoryNumber between :low and :high and length(c.inventoryNumber) = :length")
+    String findMaxInventoryNumberBetween(@Param("low") String low,
+                                         @Param("high") String high,
+                                         @Param("length") int length);
+
+    /**
+     * Возвращает идентификаторы и инвентарные номера копий произведения и блокирует их строки
+     * до конца транзакции, чтобы выдача, возврат или перенос копии не изменили их до удаления.
+     *
+     * @param oeuvreId идентификатор произведения
+     * @return пары «идентификатор — номер» в порядке возрастания идентификатора
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select new com.library.repository.projection.InventoryNumberRow(c.id, c.inventoryNumber) "
+            + "from Copy c where c.oeuvre.id = :oeuvreId "
+            + "order by c.id")
+    List<InventoryNumberRow> lockInventoryNumbersByOeuvreId(@Param("oeuvreId") Long oeuvreId);
+
+    /**
+     * Возвращает идентификаторы и инвентарные номера копий всех произведений автора и блокирует
+     * их строки до конца транзакции, чтобы выдача, возврат или перенос копии не изменили их до удаления.
+     *
+     * @param authorId идентификатор автора
+     * @return пары «идентификатор — номер» в порядке возрастания идентификатора
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select new com.library.repository.projection.InventoryNumberRow(c.id, c.inventoryNumber) "
+            + "from Copy c where c.oeuvre.id in (select o.id from Oeuvre o where o.author.id = :authorId) "
+            + "order by c.id")
+    List<InventoryNumberRow> lockInventoryNumbersByAuthorId(@Param("authorId") Long authorId);
+
+    /**
+     * Удаляет все копии произведения одним оператором DELETE.
+     * История выдач удаляется базой данных (ON DELETE CASCADE).
+     *
+     * @param oeuvreId идентификатор произведения
+     * @return количество удалённых копий
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Copy c where c.oeuvre.id = :oeuvreId")
+    int deleteByOeuvreId(@Param("oeuvreId") Long oeuvreId);
+
+    /**
+     * Удаляет все копии всех произведений автора одним оператором DELETE.
+     * История выдач удаляется базой данных (ON DELETE CASCADE).
+     *
+     * @param authorId идентификатор автора
+     * @return количество удалённых копий
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Copy c where c.oeuvre.id in (select o.id from Oeuvre o where o.author.id = :authorId)")
+    int deleteByAuthorId(@Param("authorId") Long authorId);
+
+    /**
+     * Считает доступные копии для набора произведений.
+     *
+     * @param oeuvreIds идентификаторы произведений
+     * @return количество доступных копий по идентификатору произведения
+     *         (для произведений без доступных копий — 0)
+     */
+    default Map<Long, Long> countAvailableByOeuvreIds(Collection<Long> oeuvreIds) {
+        if (oeuvreIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, Long> counts = oeuvreIds.stream().distinct()
+                .collect(Collectors.toMap(id -> id, id -> 0L));
+        findAvailabilityByOeuvreIds(oeuvreIds)
+                .forEach(row -> counts.put(row.oeuvreId(), row.available()));
+        return counts;
+    }
+
+    /**
+     * Считает копии произведения по статусам.
+     *
+     * @param oeuvreId идентификатор произведения
+     * @return количество копий по статусам
+     */
+    @Query("select new com.library.repository.projection.StatusCount(c.status, count(c)) "
+            + "from Copy c "
+            + "where c.oeuvre.id = :oeuvreId "
+            + "group by c.status")
+    List<StatusCount> countByStatusForOeuvre(@Param("oeuvreId") Long oeuvreId);
+
+    /**
+     * Считает копии всех произведений автора по статусам.
      *
-     * @param inventoryNumber инвентарный номер экземпляра
-     * @return true — если копия с таким номером уже существует; false — если нет
+     * @param authorId идентификатор автора
+     * @return количество копий по статусам
      */
-    boolean existsByInventoryNumber(String inventoryNumber);
+    @Query("select new com.library.repository.projection.StatusCount(c.status, count(c)) "
+            + "from Copy c join c.oeuvre o "
+            + "where o.author.id = :authorId "
+            + "group by c.status")
+    List<StatusCount> countByStatusForAuthor(@Param("authorId") Long authorId);
 }
@@ -0,0 +1,123 @@
+package com.library.repository;
+
+import com.library.entity.Loan;
+import com.library.repository.projection.LoanRow;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Репозиторий для работы с сущностью {@link Loan}.
+ *
+ * Открытые выдачи (без даты возврата) покрыты частичными индексами
+ * loan_open_copy_idx и loan_open_idx, поэтому поиск текущей выдачи копии
+ * и список выдач на руках не просматривают историю.
+ */
+@Repository
+public interface LoanRepository extends JpaRepository<Loan, Long> {
+
+    /**
+     * Возвращает открытые выдачи с идентификатором больше заданного
+     * в порядке возрастания идентификатора (курсорная пагинация вперёд).
+     *
+     * @param id       курсор — идентификатор последней показанной записи
+     * @param pageable ограничение размера выборки
+     * @return срез строк списка
+     */
+    @Query("select new com.library.repository.projection.LoanRow("
+            + "l.id, c.id, c.inventoryNumber, o.title, l.borrower, l.loanDate, l.dueDate, l.returnDate) "
+            + "from Loan l join l.copy c left join c.oeuvre o "
+            + "where l.returnDate is null and l.id > :id order by l.id asc")
+    Slice<LoanRow> findOpenRowsAfter(@Param("id") Long id, Pageable pageable);
+
+    /**
+     * Возвращает открытые выдачи с идентификатором меньше заданного
+     * в порядке убывания идентификатора (курсорная пагинация назад).
+     *
+     * @param id       курсор — идентификатор первой показанной записи
+     * @param pageable ограничение размера выборки
+     * @return срез строк списка
+     */
+    @Query("select new com.library.repository.projection.LoanRow("
+            + "l.id, c.id, c.inventoryNumber, o.title, l.borrower, l.loanDate, l.dueDate, l.returnDate) "
+            + "from Loan l join l.copy c left join c.oeuvre o "
+            + "where l.returnDate is null and l.id < :id order by l.id desc")
+    Slice<LoanRow> findOpenRowsBefore(@Param("id") Long id, Pageable pageable);
+
+    /**
+     * Возвращает открытую выдачу копии.
+     *
+     * @param copyId идентификатор копии
+     * @return Optional с открытой выдачей
+     */
+    @Query("select new com.library.repository.projection.LoanRow("
+            + "l.id, c.id, c.inventoryNumber, o.title, l.borrower, l.loanDate, l.dueDate, l.returnDate) "
+            + "from Loan l join l.copy c left join c.oeuvre o "
+            + "where c.id = :copyId and l.returnDate is null")
+    Optional<LoanRow> findOpenRowByCopyId(@Param("copyId") Long copyId);
+
+    /**
+     * Проверяет, есть ли у копии открытая выдача.
+     *
+     * @param copyId идентификатор копии
+     * @return true — если экземпляр у читателя
+     */
+    boolean existsByCopyIdAndReturnDateIsNull(Long copyId);
+
+    /**
+     * Возвращает последние выдачи копии, начиная с самой поздней.
+     *
+     * @param copyId   идентификатор копии
+     * @param pageable ограничение размера выборки
+     * @return строки истории выдач
+     */
+    @Query("select new com.library.repository.projection.LoanRow("
+            + "l.id, c.id, c.inventoryNumber, o.title, l.borrower, l.loanDate, l.dueDate, l.returnDate) "
+            + "from Loan l join l.copy c left join c.oeuvre o "
+            + "where c.id = :copyId order by l.id desc")
+    List<LoanRow> findRowsByCopyId(@Param("copyId") Long copyId, Pageable pageable);
+
+    /**
+     * Возвращает идентификатор копии по идентификатору выдачи.
+     *
+     * @param id идентификатор выдачи
+     * @return Optional с идентификатором копии
+     */
+    @Query("select l.copy.id from Loan l where l.id = :id")
+    Optional<Long> findCopyIdById(@Param("id") Long id);
+
+    /**
+     * Закрывает выдачу, только если она ещё открыта.
+     * Из нескольких параллельных возвратов одной выдачи успешен ровно один.
+     *
+     * @param id         идентификатор выдачи
+     * @param returnDate дата возврата
+     * @return 1 — выдача закрыта, 0 — выдачи нет или она уже закрыта
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update Loan l set l.returnDate = :returnDate where l.id = :id and l.returnDate is null")
+    int close(@Param("id") Long id, @Param("returnDate") LocalDate returnDate);
+
+    /**
+     * Считает открытые выдачи.
+     *
+     * @return количество экземпляров на руках
+     */
+    long countByReturnDateIsNull();
+
+    /**
+     * Считает просроченные выдачи.
+     *
+     * @param today текущая дата
+     * @return количество открытых выдач со сроком возврата раньше указанной даты
+     */
+    long countByReturnDateIsNullAndDueDateBefore(LocalDate today);
+}
@@ -1,9 +1,25 @@
 package com.library.repository;
 
 import com.library.entity.Oeuvre;
+import com.library.repository.projection.GenreYearCount;
+import com.library.repository.projection.LookupItem;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import com.library.repository.projection.OeuvreListRow;
+import com.library.repository.projection.OeuvreSearchRow;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 /**
  * Репозиторий для работы с сущностью {@link Oeuvre}.
  * Предоставляет стандартные CRUD‑операции и взаимодействие с базой данных
@@ -18,4 +34,289 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface OeuvreRepository extends JpaRepository<Oeuvre, Long> {
+
+    /**
+     * Возвращает строки списка произведений с идентификатором больше заданного
+     * в порядке возрастания идентификатора (курсорная пагинация вперёд).
+     * Имя автора выбирается соединением в том же запросе.
+     *
+     * @param id       курсор — идентификатор последней показанной записи
+     * @param pageable ограничение размера выборки
+     * @return срез строк списка
+     */
+    @Query("select new com.library.repository.projection.OeuvreListRow(o.id, o.title, o.genre, o.publishedYear, a.id, a.name) "
+            + "from Oeuvre o left join o.author a "
+            + "where o.id > :id order by o.id asc")
+    Slice<OeuvreListRow> findListRowsAfter(@Param("id") Long id, Pageable pageable);
+
+    /**
+     * Возвращает строки списка произведений с идентификатором меньше заданного
+     * в порядке убывания идентификатора (курсорная пагинация назад).
+     *
+     * @param id       курсор — идентификатор первой показанной записи
+     * @param pageable ограничение размера выборки
+     * @return срез строк списка
+     */
+    @Query("select new com.library.repository.projection.OeuvreListRow(o.id, o.title, o.genre, o.publishedYear, a.id, a.name) "
+            + "from Oeuvre o left join o.author a "
+            + "where o.id < :id order by o.id desc")
+    Slice<OeuvreListRow> findListRowsBefore(@Param("id") Long id, Pageable pageable);
+
+    /**
+     * Возвращает строки списка произведений с указанными идентификаторами.
+     *
+     * @param ids идентификаторы произведений
+     * @return найденные строки в порядке возрастания идентификатора
+     */
+    @Query("select new com.library.repository.projection.OeuvreListRow(o.id, o.title, o.genre, o.publishedYear, a.id, a.name) "
+            + "from Oeuvre o left join o.author a "
+            + "where o.id in :ids order by o.id asc")
+    List<OeuvreListRow> findListRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Возвращает отметку версии страницы просмотра произведения:
+     * версии произведения и автора и количество доступных копий.
+     * Времени изменения нет: удаление копии не сдвигает максимум updated_at оставшихся,
+     * поэтому страница сравнивается только по ETag.
+     *
+     * @param id идентификатор произведения
+     * @return Optional со строкой отметки или пустой Optional, если произведение не найдено
+     */
+    @Query(value = "select concat_ws('.', o.id, o.version, a.id, a.version, "
+            + "(select count(*) from copy c where c.oeuvre_id = o.id and c.status = 'A')) as tag "
+            + "from oeuvre o left join author a on a.id = o.author_id "
+            + "where o.id = :id", nativeQuery = true)
+    Optional<String> findVersionTagById(@Param("id") Long id);
+
+    /**
+     * Возвращает сводную отметку версии страницы списка произведений:
+     * версии строк страницы и их авторов, количество доступных копий этих произведений
+     * и общее количество произведений.
+     * Окно строк повторяет {@link com.library.service.KeysetPage#load}.
+     * Времени изменения у страницы нет, как и у {@link #findVersionTagById}.
+     *
+     * @param after  курсор вперёд (0 — с начала)
+     * @param before курсор назад (0 — не задан)
+     * @param limit  количество строк, читаемых загрузкой страницы
+     * @return строка отметки версии (основа ETag)
+     */
+    @Query(value = "with b as (select id, version, author_id from oeuvre "
+            + "where id < :before order by id desc limit :limit), "
+            + "f as (select id, version, author_id from oeuvre "
+            + "where id > :after order by id limit :limit), "
+            + "w as (select * from b union all select * from f where (select count(*) from b) < :limit), "
+            + "c as (select count(*) filter (where status = 'A') as available "
+            + "from copy where oeuvre_id in (select id from w)) "
+            + "select concat_ws('.', count(*), sum(w.version), min(w.id), max(w.id), sum(a.version), "
+            + "(select available from c), "
+            + "(select coalesce(sum(t.value), 0) from (select s.value from catalogue_stat s where s.kind = 'total' and s.stat_key = 'oeuvres' "
+            + "union all select d.delta from catalogue_stat_delta d where d.kind = 'total' and d.stat_key = 'oeuvres') t)) as tag "
+            + "from w left join author a on a.id = w.author_id", nativeQuery = true)
+    String findPageVersionTag(@Param("after") long after,
+                              @Param("before") long before,
+                              @Param("limit") int limit);
+
+    /**
+     * Читает произведение из базы данных (не из кэша второго уровня) и блокирует его строку
+     * до конца транзакции. Блокировка FOR UPDATE несовместима с проверкой внешнего ключа,
+     * поэтому новые копии этого произведения ждут её снятия, а его жанр, год и автор не меняются.
+     *
+     * @param id идентификатор произведения
+     * @return произведение или пустой Optional, если его нет
+     */
+    @Query(value = "select o.* from oeuvre o where o.id = :id for update", nativeQuery = true)
+    Optional<Oeuvre> lockById(@Param("id") Long id);
+
+    /**
+     * Блокирует строки произведений автора до конца транзакции (FOR UPDATE): новые копии этих
+     * произведений ждут снятия блокировки, а жанр, год и автор произведений не меняются.
+     *
+     * @param authorId идентификатор автора
+     * @return идентификаторы заблокированных произведений
+     */
+    @Query(value = "select o.id from oeuvre o where o.author_id = :authorId order by o.id for update",
+            nativeQuery = true)
+    List<Long> lockIdsByAuthorId(@Param("authorId") Long authorId);
+
+    /**
+     * Удаляет все произведения автора одним оператором DELETE.
+     * Копии этих произведений должны быть удалены заранее.
+     *
+     * @param authorId идентификатор автора
+     * @return количество удалённых произведений
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Oeuvre o where o.author.id = :authorId")
+    int deleteByAuthorId(@Param("authorId") Long authorId);
+
+    /**
+     * Удаляет произведение оператором DELETE, без загрузки его копий.
+     * Копии произведения должны быть удалены заранее.
+     *
+     * @param id идентификатор произведения
+     * @return количество удалённых произведений (0 или 1)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Oeuvre o where o.id = :id")
+    int deleteRowById(@Param("id") Long id);
+
+    /**
+     * Ищет произведения указанных авторов с указанными названиями.
+     * Используется при пакетном импорте; точное сопоставление по году выполняется в памяти.
+     *
+     * @param authorIds идентификаторы авторов
+     * @param titles    названия произведений
+     * @return найденные произведения
+     */
+    @Query("select o from Oeuvre o where o.author.id in :authorIds and o.title in :titles")
+    List<Oeuvre> findByAuthorIdsAndTitles(@Param("authorIds") Collection<Long> authorIds,
+                                          @Param("titles") Collection<String> titles);
+
+    /**
+     * Подсказки по началу названия произведения (без учёта регистра).
+     * Использует индекс oeuvre_title_prefix_idx (lower(title) text_pattern_ops): индекс и отбирает строки,
+     * и задаёт их порядок (оператор ~<~ класса text_pattern_ops — побайтовое сравнение),
+     * поэтому чтение заканчивается на {@code limit} строках без сортировки всех совпадений.
+     * Результат кэшируется в кэше запросов до изменения таблиц oeuvre и author.
+     *
+     * @param prefix начало названия
+     * @param limit  максимальное количество подсказок
+     * @return подсказки с именем автора, упорядоченные по названию
+     */
+    @Query(value = "select o.id as id, o.title as label, a.name as detail "
+            + "from oeuvre o "
+            + "left join author a on a.id = o.author_id "
+            + "where lower(o.title) like (lower(:#{escape(#prefix)}) || '%') escape :#{escapeCharacter()} "
+            + "order by lower(o.title) using ~<~ "
+            + "limit :limit",
+            nativeQuery = true)
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "oeuvre"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "author")})
+    List<LookupItem> lookupByTitlePrefix(@Param("prefix") String prefix, @Param("limit") int limit);
+
+    /**
+     * Подсказки по вхождению подстроки в название произведения (без учёта регистра).
+     * Совпадения с начала названия идут первыми.
+     * Совпадения отбирает триграммный индекс oeuvre_title_trgm_idx; из них сортируются и соединяются
+     * с авторами только {@code candidates} самых похожих на фрагмент (word_similarity),
+     * а не все совпадения: у короткого фрагмента их может быть большая часть таблицы.
+     * Результат кэшируется в кэше запросов до изменения таблиц oeuvre и author.
+     *
+     * @param fragment   фрагмент названия
+     * @param candidates количество самых похожих совпадений, из которых выбираются подсказки
+     * @param limit      максимальное количество подсказок
+     * @return подсказки с именем автора
+     */
+    @Query(value = "select c.id as id, c.title as label, a.name as detail "
+            + "from (select o.id, o.title, o.author_id "
+            + "      from oeuvre o "
+            + "      where lower(o.title) like ('%' || lower(:#{escape(#fragment)}) || '%') escape :#{escapeCharacter()} "
+            + "      order by word_similarity(lower(:fragment), lower(o.title)) desc "
+            + "      limit :candidates) c "
+            + "left join author a on a.id = c.author_id "
+            + "order by case when lower(c.title) like (lower(:#{escape(#fragment)}) || '%') "
+            + "escape :#{escapeCharacter()} then 0 else 1 end, c.title "
+            + "limit :limit",
+            nativeQuery = true)
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "oeuvre"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "author")})
+    List<LookupItem> lookupByTitleFragment(@Param("fragment") String fragment,
+                                           @Param("candidates") int candidates,
+                                           @Param("limit") int limit);
+
+    /**
+     * Полнотекстовый поиск произведений по названию, имени автора и жанру.
+     * Фраза разбирается функцией websearch_to_tsquery (поддерживаются кавычки,
+     * «or» и исключение слов через «-»). Документ хранится в столбце search_vector
+     * и индексирован GIN-индексом oeuvre_search_vector_idx (см. db/migration/V4__search.sql).
+     * Совпадения в названии весят больше совпадений в имени автора, а те — больше жанра.
+     *
+     * @param text     поисковая фраза
+     * @param genre    жанр для фильтрации (пустая строка — без фильтра)
+     * @param yearFrom нижняя граница года публикации
+     * @param yearTo   верхняя граница года публикации
+     * @param limit    максимальное количество строк
+     * @param offset   количество пропускаемых строк
+     * @return найденные произведения в порядке убывания релевантности
+     */
+    @Query(value = "select o.id as id, o.title as title, o.genre as genre, "
+            + "o.published_year as \"publishedYear\", a.name as \"authorName\", "
+            + "cast(ts_rank(o.search_vector, query) as double precision) as rank "
+            + "from oeuvre o "
+            + "cross join websearch_to_tsquery('russian', :text) query "
+            + "left join author a on a.id = o.author_id "
+            + "where o.search_vector @@ query "
+            + "and (:genre = '' or lower(o.genre) = lower(:genre)) "
+            + "and o.published_year between :yearFrom and :yearTo "
+            + "order by rank desc, o.id "
+            + "limit :limit offset :offset",
+            nativeQuery = true)
+    List<OeuvreSearchRow> searchFullText(@Param("text") String text,
+                                         @Param("genre") String genre,
+                                         @Param("yearFrom") int yearFrom,
+                                         @Param("yearTo") int yearTo,
+                                         @Param("limit") int limit,
+                                         @Param("offset") int offset);
+
+    /**
+     * Нечёткий поиск произведений по сходству слов (pg_trgm) в названии и имени автора.
+     * Находит написания с опечатками, которые не распознаёт полнотекстовый поиск.
+     * Использует триграммные индексы oeuvre_title_trgm_idx и author_name_trgm_idx.
+     * Каждая ветка отбирает не больше {@code limit + offset} лучших кандидатов,
+     * поэтому соединение с остальными столбцами выполняется только для них.
+     *
+     * @param text     поисковая фраза
+     * @param genre    жанр для фильтрации (пустая строка — без фильтра)
+     * @param yearFrom нижняя граница года публикации
+     * @param yearTo   верхняя граница года публикации
+     * @param limit    максимальное количество строк
+     * @param offset   количество пропускаемых строк
+     * @return найденные произведения в порядке убывания сходства
+     */
+    @Query(value = "select o.id as id, o.title as title, o.genre as genre, "
+            + "o.published_year as \"publishedYear\", a.name as \"authorName\", cast(hit.rank as double precision) as rank "
+            + "from (select candidate.id, max(candidate.rank) as rank "
+            + "      from ((select t.id, word_similarity(lower(:text), lower(t.title)) as rank "
+            + "             from oeuvre t "
+            + "             where lower(:text) <% lower(t.title) "
+            + "             and (:genre = '' or lower(t.genre) = lower(:genre)) "
+            + "             and t.published_year between :yearFrom and :yearTo "
+            + "             order by rank desc, t.id "
+            + "             limit :limit + :offset) "
+            + "            union all "
+            + "            (select t.id, word_similarity(lower(:text), lower(n.name)) as rank "
+            + "             from author n "
+            + "             join oeuvre t on t.author_id = n.id "
+            + "             where lower(:text) <% lower(n.name) "
+            + "             and (:genre = '' or lower(t.genre) = lower(:genre)) "
+            + "             and t.published_year between :yearFrom and :yearTo "
+            + "             order by rank desc, t.id "
+            + "             limit :limit + :offset)) candidate "
+            + "      group by candidate.id) hit "
+            + "join oeuvre o on o.id = hit.id "
+            + "left join author a on a.id = o.author_id "
+            + "order by hit.rank desc, o.id "
+            + "limit :limit offset :offset",
+            nativeQuery = true)
+    List<OeuvreSearchRow> searchSimilar(@Param("text") String text,
+                                        @Param("genre") String genre,
+                                        @Param("yearFrom") int yearFrom,
+                                        @Param("yearTo") int yearTo,
+                                        @Param("limit") int limit,
+                                        @Param("offset") int offset);
+
+    /**
+     * Считает произведения автора по жанрам и годам публикации.
+     * Используется для уменьшения сводной статистики перед удалением автора.
+     *
+     * @param authorId идентификатор автора
+     * @return количество произведений по парам «жанр — год»
+     */
+    @Query("select new com.library.repository.projection.GenreYearCount(o.genre, o.publishedYear, count(o)) "
+            + "from Oeuvre o "
+            + "where o.author.id = :authorId "
+            + "group by o.genre, o.publishedYear")
+    List<GenreYearCount> countByGenreAndYearForAuthor(@Param("authorId") Long authorId);
 }
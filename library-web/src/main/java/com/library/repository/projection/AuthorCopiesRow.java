@@ -0,0 +1,11 @@
+package com.library.repository.projection;
+
+/**
+ * Автор с количеством копий его произведений.
+ *
+ * @param authorId идентификатор автора
+ * @param name     имя автора
+ * @param copies   количество копий
+ */
+public record AuthorCopiesRow(Long authorId, String name, Long copies) {
+}
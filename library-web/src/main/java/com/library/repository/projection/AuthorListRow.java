@@ -0,0 +1,16 @@
+package com.library.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Строка списка авторов.
+ * Содержит только отображаемые в таблице поля и не является управляемой сущностью,
+ * поэтому не попадает в контекст постоянства и не проверяется при flush.
+ *
+ * @param id          идентификатор автора
+ * @param name        имя автора
+ * @param birthDate   дата рождения
+ * @param nationality национальность
+ */
+public record AuthorListRow(Long id, String name, LocalDate birthDate, String nationality) {
+}
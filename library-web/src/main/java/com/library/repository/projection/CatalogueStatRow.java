@@ -0,0 +1,11 @@
+package com.library.repository.projection;
+
+/**
+ * Значение счётчика сводной статистики каталога.
+ *
+ * @param kind  тип счётчика
+ * @param key   ключ внутри типа
+ * @param value значение
+ */
+public record CatalogueStatRow(String kind, String key, Long value) {
+}
@@ -0,0 +1,15 @@
+package com.library.repository.projection;
+
+import com.library.entity.CopyStatus;
+
+/**
+ * Копия, выбранная для массовой операции: всё, что нужно
+ * для учёта в статистике каталога и индексе инвентарных номеров.
+ *
+ * @param id              идентификатор копии
+ * @param inventoryNumber инвентарный номер
+ * @param status          статус
+ * @param authorId        идентификатор автора произведения (может быть null)
+ */
+public record CopyBulkRow(Long id, String inventoryNumber, CopyStatus status, Long authorId) {
+}
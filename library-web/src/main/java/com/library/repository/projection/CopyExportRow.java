@@ -0,0 +1,21 @@
+package com.library.repository.projection;
+
+import com.library.entity.CopyStatus;
+
+/**
+ * Строка выгрузки инвентаря: копия вместе с названием произведения и именем автора.
+ *
+ * @param id              идентификатор копии
+ * @param inventoryNumber инвентарный номер
+ * @param status          статус экземпляра
+ * @param oeuvreId        идентификатор произведения
+ * @param title           название произведения
+ * @param authorName      имя автора
+ */
+public record CopyExportRow(Long id,
+                            String inventoryNumber,
+                            CopyStatus status,
+                            Long oeuvreId,
+                            String title,
+                            String authorName) {
+}
@@ -0,0 +1,16 @@
+package com.library.repository.projection;
+
+import com.library.entity.CopyStatus;
+
+/**
+ * Строка списка копий.
+ * Название произведения выбирается соединением в том же запросе.
+ *
+ * @param id              идентификатор копии
+ * @param oeuvreId        идентификатор произведения (null, если произведение не указано)
+ * @param oeuvreTitle     название произведения (null, если произведение не указано)
+ * @param inventoryNumber инвентарный номер
+ * @param status          статус экземпляра
+ */
+public record CopyListRow(Long id, Long oeuvreId, String oeuvreTitle, String inventoryNumber, CopyStatus status) {
+}
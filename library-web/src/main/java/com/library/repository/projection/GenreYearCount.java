@@ -0,0 +1,11 @@
+package com.library.repository.projection;
+
+/**
+ * Количество произведений с данными жанром и годом публикации.
+ *
+ * @param genre         жанр
+ * @param publishedYear год публикации
+ * @param count         количество произведений
+ */
+public record GenreYearCount(String genre, Integer publishedYear, Long count) {
+}
@@ -0,0 +1,10 @@
+package com.library.repository.projection;
+
+/**
+ * Пара «идентификатор копии — инвентарный номер».
+ *
+ * @param id              идентификатор копии
+ * @param inventoryNumber инвентарный номер
+ */
+public record InventoryNumberRow(Long id, String inventoryNumber) {
+}
@@ -0,0 +1,34 @@
+package com.library.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Строка списка выдач.
+ * Инвентарный номер и название произведения выбираются соединением в том же запросе.
+ *
+ * @param id              идентификатор выдачи
+ * @param copyId          идентификатор копии
+ * @param inventoryNumber инвентарный номер копии
+ * @param oeuvreTitle     название произведения (null, если произведение не указано)
+ * @param borrower        читатель
+ * @param loanDate        дата выдачи
+ * @param dueDate         срок возврата
+ * @param returnDate      дата возврата (null, если экземпляр ещё у читателя)
+ */
+public record LoanRow(Long id,
+                      Long copyId,
+                      String inventoryNumber,
+                      String oeuvreTitle,
+                      String borrower,
+                      LocalDate loanDate,
+                      LocalDate dueDate,
+                      LocalDate returnDate) {
+
+    /**
+     * @param today текущая дата
+     * @return true — если экземпляр не возвращён и срок возврата прошёл
+     */
+    public boolean isOverdue(LocalDate today) {
+        return returnDate == null && dueDate.isBefore(today);
+    }
+}
@@ -0,0 +1,11 @@
+package com.library.repository.projection;
+
+/**
+ * Элемент подсказки для полей выбора с автодополнением.
+ *
+ * @param id     идентификатор записи
+ * @param label  отображаемое название
+ * @param detail уточнение (например, автор произведения), может быть null
+ */
+public record LookupItem(Long id, String label, String detail) {
+}
@@ -0,0 +1,10 @@
+package com.library.repository.projection;
+
+/**
+ * Количество доступных копий произведения.
+ *
+ * @param oeuvreId  идентификатор произведения
+ * @param available количество копий со статусом «доступна»
+ */
+public record OeuvreAvailability(Long oeuvreId, Long available) {
+}
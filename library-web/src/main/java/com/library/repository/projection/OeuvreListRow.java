@@ -0,0 +1,16 @@
+package com.library.repository.projection;
+
+/**
+ * Строка списка произведений.
+ * Имя автора выбирается соединением в том же запросе.
+ *
+ * @param id            идентификатор произведения
+ * @param title         название
+ * @param genre         жанр
+ * @param publishedYear год публикации
+ * @param authorId      идентификатор автора (null, если автор не указан)
+ * @param authorName    имя автора (null, если автор не указан)
+ */
+public record OeuvreListRow(Long id, String title, String genre, Integer publishedYear,
+                            Long authorId, String authorName) {
+}
@@ -0,0 +1,19 @@
+package com.library.repository.projection;
+
+/**
+ * Строка результатов поиска произведений.
+ *
+ * @param id            идентификатор произведения
+ * @param title         название
+ * @param genre         жанр
+ * @param publishedYear год публикации
+ * @param authorName    имя автора (null, если автор не указан)
+ * @param rank          релевантность: чем больше, тем выше строка в выдаче
+ */
+public record OeuvreSearchRow(Long id,
+                              String title,
+                              String genre,
+                              Integer publishedYear,
+                              String authorName,
+                              Double rank) {
+}
@@ -0,0 +1,12 @@
+package com.library.repository.projection;
+
+import com.library.entity.CopyStatus;
+
+/**
+ * Количество копий в данном статусе.
+ *
+ * @param status статус
+ * @param count  количество копий
+ */
+public record StatusCount(CopyStatus status, Long count) {
+}
@@ -0,0 +1,33 @@
+package com.library.repository.projection;
+
+/**
+ * Отметка версии данных страницы для условных GET‑запросов.
+ * Вычисляется одним лёгким запросом по версиям и времени изменения записей,
+ * без чтения самих данных.
+ *
+ * @param tag          строка, меняющаяся при любом изменении показываемых данных (основа ETag)
+ * @param lastModified время последнего изменения в миллисекундах эпохи (может быть null)
+ */
+public record VersionStamp(String tag, Long lastModified) {
+
+    /**
+     * Дополняет отметку значением, которое не хранится в базе данных
+     * (например, текущей датой, от которой зависит страница).
+     *
+     * @param part дополнительная часть
+     * @return новая отметка
+     */
+    public VersionStamp with(Object part) {
+        return new VersionStamp(tag + "." + part, lastModified);
+    }
+
+    /**
+     * Сдвигает время изменения не раньше указанного момента.
+     *
+     * @param millis момент в миллисекундах эпохи
+     * @return новая отметка
+     */
+    public VersionStamp notBefore(long millis) {
+        return new VersionStamp(tag, lastModified == null ? millis : Math.max(lastModified, millis));
+    }
+}
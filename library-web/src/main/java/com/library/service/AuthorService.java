@@ -2,10 +2,18 @@ package com.library.service;
 
 import com.library.entity.Author;
 import com.library.repository.AuthorRepository;
+import com.library.repository.CopyRepository;
+import com.library.repository.OeuvreRepository;
+import com.library.repository.projection.AuthorListRow;
+import com.library.repository.projection.InventoryNumberRow;
+import com.library.repository.projection.LookupItem;
+import com.library.repository.projection.VersionStamp;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,21 +23,42 @@ import java.util.Optional;
  * обновлением и удалением авторов.
  *
  * Все методы выполняются в рамках транзакции.
+ * Время выполнения публичных методов записывается в метрику library.service
+ * с тегами class, method и section=authors.
  */
 @Service
+@Timed(value = "library.service", extraTags = {"section", "authors"}, histogram = true)
 @Transactional
 public class AuthorService {
 
+    private static final String COPIES_ON_LOAN = "Выдано копий произведений автора: %d — сначала оформите возврат";
+
     private final AuthorRepository authorRepository;
+    private final OeuvreRepository oeuvreRepository;
+    private final CopyRepository copyRepository;
+    private final CatalogueStatsService catalogueStatsService;
+    private final InventoryNumberIndex inventoryNumberIndex;
 
     /**
-     * Конструктор сервиса с внедрением зависимости репозитория авторов.
+     * Конструктор сервиса с внедрением зависимостей.
      *
-     * @param authorRepository репозиторий для работы с авторами
+     * @param authorRepository      репозиторий для работы с авторами
+     * @param oeuvreRepository      репозиторий произведений (каскадное удаление)
+     * @param copyRepository        репозиторий копий (каскадное удаление)
+     * @param catalogueStatsService сервис сводной статистики каталога
+     * @param inventoryNumberIndex  индекс инвентарных номеров
      */
     @Autowired
-    public AuthorService(AuthorRepository authorRepository) {
+    public AuthorService(AuthorRepository authorRepository,
+                         OeuvreRepository oeuvreRepository,
+                         CopyRepository copyRepository,
+                         CatalogueStatsService catalogueStatsService,
+                         InventoryNumberIndex inventoryNumberIndex) {
         this.authorRepository = authorRepository;
+        this.oeuvreRepository = oeuvreRepository;
+        this.copyRepository = copyRepository;
+        this.catalogueStatsService = catalogueStatsService;
+        this.inventoryNumberIndex = inventoryNumberIndex;
     }
 
     /**
@@ -41,6 +70,77 @@ public class AuthorService {
         return authorRepository.findAll();
     }
 
+    /**
+     * Возвращает страницу авторов при курсорной пагинации по идентификатору.
+     * Строки возвращаются проекциями {@link AuthorListRow}, а не управляемыми сущностями.
+     *
+     * @param after  идентификатор, после которого начинается страница (может быть null)
+     * @param before идентификатор, перед которым заканчивается страница (может быть null)
+     * @param size   размер страницы
+     * @return страница авторов
+     */
+    public KeysetPage<AuthorListRow> getAuthorsPage(Long after, Long before, int size) {
+        return KeysetPage.load(after, before, size,
+                authorRepository::findListRowsAfter,
+                authorRepository::findListRowsBefore,
+                AuthorListRow::id);
+    }
+
+    /**
+     * Возвращает отметку версии страницы списка авторов для условного GET.
+     * Учитывает версии строк страницы и общее количество авторов в заголовке списка.
+     * Времени изменения отметка не содержит: его не сдвигает удаление автора.
+     *
+     * @param after  идентификатор, после которого начинается страница (может быть null)
+     * @param before идентификатор, перед которым заканчивается страница (может быть null)
+     * @param size   размер страницы
+     * @return отметка версии
+     */
+    public VersionStamp getAuthorsPageStamp(Long after, Long before, int size) {
+        return new VersionStamp(authorRepository.findPageVersionTag(before != null || after == null ? 0L : after,
+                        before == null ? 0L : before,
+                        KeysetPage.fetchSize(size)), null);
+    }
+
+    /**
+     * Возвращает отметку версии автора для условного GET страницы просмотра.
+     *
+     * @param id идентификатор автора
+     * @return Optional с отметкой или пустой Optional, если автор не найден
+     */
+    public Optional<VersionStamp> getAuthorStamp(Long id) {
+        return authorRepository.findVersionStampById(id);
+    }
+
+    /**
+     * Возвращает строки списка для набора авторов одним запросом.
+     * Несуществующие идентификаторы пропускаются.
+     *
+     * @param ids идентификаторы авторов
+     * @return строки в порядке возрастания идентификатора
+     */
+    public List<AuthorListRow> getAuthorRowsByIds(Collection<Long> ids) {
+        return ids.isEmpty() ? List.of() : authorRepository.findListRowsByIdIn(ids);
+    }
+
+    /**
+     * Возвращает подсказки для выбора автора по имени.
+     * Запросы короче трёх символов ищут по началу имени, остальные — по вхождению.
+     *
+     * @param query введённый текст
+     * @param limit максимальное количество подсказок
+     * @return подсказки (пустой список для пустого запроса)
+     */
+    public List<LookupItem> lookupAuthors(String query, int limit) {
+        LookupQuery lookup = LookupQuery.of(query, limit);
+        if (lookup.isEmpty()) {
+            return List.of();
+        }
+        return lookup.isPrefixOnly()
+                ? authorRepository.lookupByNamePrefix(lookup.text(), lookup.limit())
+                : authorRepository.lookupByNameFragment(lookup.text(), LookupQuery.FRAGMENT_CANDIDATES, lookup.limit());
+    }
+
     /**
      * Ищет автора по идентификатору.
      *
@@ -58,7 +158,12 @@ public class AuthorService {
      * @return сохранённый автор
      */
     public Author saveAuthor(Author author) {
-        return authorRepository.save(author);
+        boolean created = author.getId() == null;
+        Author saved = authorRepository.save(author);
+        if (created) {
+            catalogueStatsService.authorCreated();
+        }
+        return saved;
     }
 
     /**
@@ -82,16 +187,37 @@ public class AuthorService {
     }
 
     /**
-     * Удаляет автора по идентификатору.
+     * Удаляет автора вместе со всеми его произведениями и их копиями.
+     * Вместо загрузки графа сущностей выполняются три оператора DELETE
+     * (копии, произведения, автор); историю выдач удаляет база данных,
+     * поэтому автора с выданными копиями удалить нельзя.
      *
      * @param id идентификатор автора
+     * @return количество удалённых строк
+     * @throws RuntimeException         если автор с указанным ID не найден
+     * @throws IllegalArgumentException если копии произведений автора выданы читателям
      */
     @Transactional
-    public void deleteAuthor(Long id) {
-        Author author = authorRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Автор не найден"));
+    public DeletedRows deleteAuthor(Long id) {
+        // Сначала блокируются автор, его произведения и их копии: статистика и индекс номеров
+        // должны считаться по тем же строкам, которые затем удаляются
+        if (authorRepository.lockById(id).isEmpty()) {
+            throw new RuntimeException("Автор не найден");
+        }
+        oeuvreRepository.lockIdsByAuthorId(id);
+        List<InventoryNumberRow> numbers = copyRepository.lockInventoryNumbersByAuthorId(id);
+        // Открытые выдачи база данных удалила бы вместе с копиями
+        long onLoan = copyRepository.countOnLoanByAuthorId(id);
+        if (onLoan > 0) {
+            throw new IllegalArgumentException(String.format(COPIES_ON_LOAN, onLoan));
+        }
 
-        authorRepository.delete(author);
+        catalogueStatsService.authorDeleting(id);
+        inventoryNumberIndex.removeAll(numbers);
+        long copies = copyRepository.deleteByAuthorId(id);
+        long oeuvres = oeuvreRepository.deleteByAuthorId(id);
+        long authors = authorRepository.deleteRowById(id);
+        return new DeletedRows(authors, oeuvres, copies);
     }
 
 
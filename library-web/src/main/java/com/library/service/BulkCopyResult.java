@@ -0,0 +1,17 @@
+package com.library.service;
+
+/**
+ * Итог массовой операции над копиями.
+ *
+ * @param selected количество выбранных копий
+ * @param changed  количество копий, к которым операция применена
+ */
+public record BulkCopyResult(long selected, long changed) {
+
+    /**
+     * @return количество пропущенных копий (удалены ранее, выданы или уже в нужном статусе)
+     */
+    public long skipped() {
+        return selected - changed;
+    }
+}
@@ -0,0 +1,37 @@
+package com.library.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+/**
+ * Сервис подсчёта количества записей каталога.
+ * Значения берутся из поддерживаемых счётчиков {@link CatalogueStatsService}
+ * (одна строка по первичному ключу), а не запросом SELECT COUNT(*) по всей таблице.
+ */
+@Service
+@RequiredArgsConstructor
+public class CatalogueCountService {
+
+    private final CatalogueStatsService catalogueStatsService;
+
+    /**
+     * @return количество авторов
+     */
+    public long countAuthors() {
+        return catalogueStatsService.total(CatalogueStatsService.AUTHORS);
+    }
+
+    /**
+     * @return количество произведений
+     */
+    public long countOeuvres() {
+        return catalogueStatsService.total(CatalogueStatsService.OEUVRES);
+    }
+
+    /**
+     * @return количество копий
+     */
+    public long countCopies() {
+        return catalogueStatsService.total(CatalogueStatsService.COPIES);
+    }
+}
@@ -0,0 +1,11 @@
+package com.library.service;
+
+/**
+ * Сводка размеров каталога для заголовков списков и главной страницы.
+ *
+ * @param authors количество авторов
+ * @param oeuvres количество произведений
+ * @param copies  количество копий
+ */
+public record CatalogueCounts(long authors, long oeuvres, long copies) {
+}
@@ -0,0 +1,33 @@
+package com.library.service;
+
+import com.library.entity.CopyStatus;
+import com.library.repository.projection.AuthorCopiesRow;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Данные панели сводной статистики на главной странице.
+ *
+ * @param counts         количество авторов, произведений и копий
+ * @param copiesByStatus количество копий по статусам (все статусы, в порядке объявления)
+ * @param genres         самые частые жанры
+ * @param decades        количество произведений по десятилетиям публикации, по возрастанию
+ * @param topAuthors     авторы с наибольшим количеством копий
+ */
+public record CatalogueDashboard(CatalogueCounts counts,
+                                 Map<CopyStatus, Long> copiesByStatus,
+                                 List<Bar> genres,
+                                 List<Bar> decades,
+                                 List<AuthorCopiesRow> topAuthors) {
+
+    /**
+     * Строка гистограммы.
+     *
+     * @param label   подпись
+     * @param value   значение
+     * @param percent доля от наибольшего значения в гистограмме, 0–100
+     */
+    public record Bar(String label, long value, int percent) {
+    }
+}
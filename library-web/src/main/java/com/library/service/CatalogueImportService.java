@@ -0,0 +1,475 @@
+package com.library.service;
+
+import com.library.entity.Author;
+import com.library.entity.Copy;
+import com.library.entity.CopyStatus;
+import com.library.entity.Oeuvre;
+import com.library.repository.AuthorRepository;
+import com.library.repository.CopyRepository;
+import com.library.repository.OeuvreRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Сервис пакетного импорта каталога (авторы → произведения → копии) из CSV.
+ *
+ * Файл читается потоково и обрабатывается пачками по {@link #CHUNK_SIZE} строк,
+ * каждая пачка — в отдельной транзакции. Авторы и произведения сопоставляются
+ * с уже существующими одним запросом на пачку и запоминаются в памяти,
+ * занятость инвентарных номеров тоже проверяется одним запросом на пачку.
+ * Вставки объединяются Hibernate в JDBC‑пакеты (идентификаторы выделяются
+ * из последовательностей, а не через IDENTITY).
+ *
+ * Ожидаемые столбцы: author_name, author_birth_date, author_nationality,
+ * title, genre, published_year, inventory_number, status.
+ * Столбцы author_birth_date, author_nationality и status необязательны.
+ */
+@Service
+public class CatalogueImportService {
+
+    /** Количество строк, записываемых в одной транзакции. */
+    public static final int CHUNK_SIZE = 1000;
+
+    /** Максимальное количество ошибок, попадающих в отчёт. */
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final List<String> REQUIRED_COLUMNS = List.of(
+            "author_name", "title", "genre", "published_year", "inventory_number");
+
+    private final AuthorRepository authorRepository;
+    private final OeuvreRepository oeuvreRepository;
+    private final CopyRepository copyRepository;
+    private final CopyStatusLabels copyStatusLabels;
+    private final InventoryNumberIndex inventoryNumberIndex;
+    private final CatalogueStatsService catalogueStatsService;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Конструктор сервиса с внедрением зависимостей.
+     *
+     * @param authorRepository      репозиторий авторов
+     * @param oeuvreRepository      репозиторий произведений
+     * @param copyRepository        репозиторий копий
+     * @param copyStatusLabels      названия статусов копий
+     * @param inventoryNumberIndex  индекс инвентарных номеров (обновляется после фиксации пачки)
+     * @param catalogueStatsService сводная статистика (приращения пачки учитываются после её фиксации)
+     * @param validator             валидатор Bean Validation
+     * @param transactionManager    менеджер транзакций для записи пачек
+     */
+    public CatalogueImportService(AuthorRepository authorRepository,
+                                  OeuvreRepository oeuvreRepository,
+                                  CopyRepository copyRepository,
+                                  CopyStatusLabels copyStatusLabels,
+                                  InventoryNumberIndex inventoryNumberIndex,
+                                  CatalogueStatsService catalogueStatsService,
+                                  Validator validator,
+                                  PlatformTransactionManager transactionManager) {
+        this.authorRepository = authorRepository;
+        this.oeuvreRepository = oeuvreRepository;
+        this.copyRepository = copyRepository;
+        this.copyStatusLabels = copyStatusLabels;
+        this.inventoryNumberIndex = inventoryNumberIndex;
+        this.catalogueStatsService = catalogueStatsService;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Импортирует каталог из CSV‑потока в кодировке UTF‑8.
+     *
+     * @param input     поток с содержимым файла
+     * @param delimiter разделитель столбцов
+     * @return отчёт об импорте
+     * @throws IOException              при ошибке чтения потока
+     * @throws IllegalArgumentException если в заголовке нет обязательных столбцов
+     */
+    public ImportReport importCsv(InputStream input, char delimiter) throws IOException {
+        long started = System.nanoTime();
+        ImportState state = new ImportState();
+
+        CSVFormat format = CSVFormat.DEFAULT.builder()
+                .setDelimiter(delimiter)
+                .setHeader()
+                .setSkipHeaderRecord(true)
+                .setIgnoreEmptyLines(true)
+                .setTrim(true)
+                .get();
+
+        try (Reader reader = openReader(input); CSVParser parser = format.parse(reader)) {
+            List<String> missing = REQUIRED_COLUMNS.stream()
+                    .filter(column -> !parser.getHeaderMap().containsKey(column))
+                    .toList();
+            if (!missing.isEmpty()) {
+                throw new IllegalArgumentException("В заголовке файла нет столбцов: " + String.join(", ", missing));
+            }
+
+            List<ImportRow> chunk = new ArrayList<>(CHUNK_SIZE);
+            for (CSVRecord record : parser) {
+                state.rowsRead++;
+                // Номер записи не совпадает с номером строки файла, если в кавычках есть перевод строки
+                ImportRow row = parseRow(record, parser.getCurrentLineNumber(), state);
+                if (row != null) {
+                    chunk.add(row);
+                }
+                if (chunk.size() == CHUNK_SIZE) {
+                    importChunk(chunk, state);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(chunk, state);
+            }
+        }
+
+        state.errors.sort(Comparator.comparingLong(ImportReport.RowError::line));
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        return new ImportReport(state.rowsRead, state.authorsCreated, state.oeuvresCreated,
+                state.copiesCreated, state.errorCount, state.errors, elapsedMillis);
+    }
+
+    /**
+     * Открывает поток как UTF‑8 и пропускает BOM, который добавляют табличные редакторы.
+     */
+    private Reader openReader(InputStream input) throws IOException {
+        PushbackReader reader = new PushbackReader(
+                new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)));
+        int first = reader.read();
+        if (first != -1 && first != '\uFEFF') {
+            reader.unread(first);
+        }
+        return reader;
+    }
+
+    /**
+     * Разбирает строку файла. При ошибке регистрирует её в отчёте и возвращает null.
+     *
+     * @param line номер строки файла, на которой заканчивается запись
+     */
+    private ImportRow parseRow(CSVRecord record, long line, ImportState state) {
+        try {
+            String inventoryNumber = required(record, "inventory_number");
+            String statusText = optional(record, "status");
+            CopyStatus status = statusText == null ? null : copyStatusLabels.parse(statusText)
+                    .orElseThrow(() -> new IllegalArgumentException("неизвестный статус «" + statusText + "»"));
+
+            String birthDate = optional(record, "author_birth_date");
+            return new ImportRow(
+                    line,
+                    required(record, "author_name"),
+                    birthDate == null ? null : LocalDate.parse(birthDate),
+                    optional(record, "author_nationality"),
+                    required(record, "title"),
+                    required(record, "genre"),
+                    Integer.valueOf(required(record, "published_year")),
+                    inventoryNumber,
+                    status);
+        } catch (DateTimeParseException e) {
+            state.error(line, "дата рождения должна быть в формате ГГГГ-ММ-ДД");
+        } catch (NumberFormatException e) {
+            state.error(line, "год публикации должен быть числом");
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            state.error(line, e.getMessage());
+        }
+        return null;
+    }
+
+    private static String required(CSVRecord record, String column) {
+        String value = optional(record, column);
+        if (value == null) {
+            throw new IllegalArgumentException("не заполнен столбец " + column);
+        }
+        return value;
+    }
+
+    private static String optional(CSVRecord record, String column) {
+        if (!record.isMapped(column) || !record.isSet(column)) {
+            return null;
+        }
+        String value = record.get(column);
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Записывает пачку строк в отдельной транзакции.
+     * Найденные и созданные авторы/произведения запоминаются только после фиксации,
+     * чтобы откат пачки не оставил в памяти несуществующих идентификаторов.
+     */
+    private void importChunk(List<ImportRow> rows, ImportState state) {
+        try {
+            ChunkResult result = transactionTemplate.execute(status -> writeChunk(rows, state));
+            state.merge(result);
+        } catch (RuntimeException e) {
+            for (ImportRow row : rows) {
+                state.error(row.line(), "пачка не записана: " + e.getMessage());
+            }
+        }
+    }
+
+    private ChunkResult writeChunk(List<ImportRow> rows, ImportState state) {
+        ChunkResult result = new ChunkResult();
+        resolveAuthors(rows, state, result);
+        resolveOeuvres(rows, state, result);
+
+        Set<String> taken = new HashSet<>(copyRepository.findExistingInventoryNumbers(
+                rows.stream().map(ImportRow::inventoryNumber).collect(Collectors.toSet())));
+
+        for (ImportRow row : rows) {
+            Long oeuvreId = result.oeuvreId(state, row);
+            if (oeuvreId == null) {
+                continue;
+            }
+            if (!taken.add(row.inventoryNumber())) {
+                result.errors.add(new ImportReport.RowError(row.line(),
+                        "копия с инвентарным номером " + row.inventoryNumber() + " уже существует"));
+                continue;
+            }
+
+            Copy copy = Copy.builder()
+                    .inventoryNumber(row.inventoryNumber())
+                    .oeuvre(oeuvreRepository.getReferenceById(oeuvreId))
+                    .build();
+            if (row.status() != null) {
+                copy.setStatus(row.status());
+            }
+            String violations = violations(copy);
+            if (violations == null) {
+                copyRepository.save(copy);
+                inventoryNumberIndex.put(copy.getInventoryNumber(), copy.getId());
+                result.stats.copies(copy.getStatus(), result.authorId(state, row), 1);
+                result.copiesCreated++;
+            } else {
+                result.errors.add(new ImportReport.RowError(row.line(), violations));
+            }
+        }
+        catalogueStatsService.record(result.stats);
+        return result;
+    }
+
+    /**
+     * Сопоставляет имена авторов пачки с базой одним запросом и создаёт недостающих.
+     */
+    private void resolveAuthors(List<ImportRow> rows, ImportState state, ChunkResult result) {
+        Map<String, ImportRow> unresolved = new LinkedHashMap<>();
+        for (ImportRow row : rows) {
+            if (!state.authorIds.containsKey(row.authorName())) {
+                unresolved.putIfAbsent(row.authorName(), row);
+            }
+        }
+        if (unresolved.isEmpty()) {
+            return;
+        }
+
+        for (Author author : authorRepository.findByNameIn(unresolved.keySet())) {
+            result.authorIds.merge(author.getName(), author.getId(), Math::min);
+        }
+
+        for (ImportRow row : unresolved.values()) {
+            if (result.authorIds.containsKey(row.authorName())) {
+                continue;
+            }
+            Author author = Author.builder()
+                    .name(row.authorName())
+                    .birthDate(row.authorBirthDate())
+                    .nationality(row.authorNationality())
+                    .build();
+            String violations = violations(author);
+            if (violations == null) {
+                authorRepository.save(author);
+                result.authorIds.put(author.getName(), author.getId());
+                result.stats.authors(1);
+                result.authorsCreated++;
+            } else {
+                result.rejectedAuthors.put(row.authorName(), violations);
+            }
+        }
+    }
+
+    /**
+     * Сопоставляет произведения пачки (автор + название + год) с базой одним запросом
+     * и создаёт недостающие.
+     */
+    private void resolveOeuvres(List<ImportRow> rows, ImportState state, ChunkResult result) {
+        Map<OeuvreKey, ImportRow> unresolved = new LinkedHashMap<>();
+        for (ImportRow row : rows) {
+            Long authorId = result.authorId(state, row);
+            if (authorId == null) {
+                result.errors.add(new ImportReport.RowError(row.line(),
+                        "автор «" + row.authorName() + "»: " + result.rejectedAuthors.get(row.authorName())));
+                continue;
+            }
+            OeuvreKey key = new OeuvreKey(authorId, row.title(), row.publishedYear());
+            if (!state.oeuvreIds.containsKey(key)) {
+                unresolved.putIfAbsent(key, row);
+            }
+        }
+        if (unresolved.isEmpty()) {
+            return;
+        }
+
+        Set<Long> authorIds = unresolved.keySet().stream().map(OeuvreKey::authorId).collect(Collectors.toSet());
+        Set<String> titles = unresolved.keySet().stream().map(OeuvreKey::title).collect(Collectors.toSet());
+        for (Oeuvre oeuvre : oeuvreRepository.findByAuthorIdsAndTitles(authorIds, titles)) {
+            OeuvreKey key = new OeuvreKey(oeuvre.getAuthor().getId(), oeuvre.getTitle(), oeuvre.getPublishedYear());
+            result.oeuvreIds.merge(key, oeuvre.getId(), Math::min);
+        }
+
+        for (Map.Entry<OeuvreKey, ImportRow> entry : unresolved.entrySet()) {
+            OeuvreKey key = entry.getKey();
+            ImportRow row = entry.getValue();
+            if (result.oeuvreIds.containsKey(key)) {
+                continue;
+            }
+            Oeuvre oeuvre = Oeuvre.builder()
+                    .title(row.title())
+                    .genre(row.genre())
+                    .publishedYear(row.publishedYear())
+                    .author(authorRepository.getReferenceById(key.authorId()))
+                    .build();
+            String violations = violations(oeuvre);
+            if (violations == null) {
+                oeuvreRepository.save(oeuvre);
+                result.oeuvreIds.put(key, oeuvre.getId());
+                result.stats.oeuvres(oeuvre.getGenre(), oeuvre.getPublishedYear(), 1);
+                result.oeuvresCreated++;
+            } else {
+                result.rejectedOeuvres.put(key, violations);
+            }
+        }
+    }
+
+    /**
+     * Проверяет сущность аннотациями Bean Validation.
+     *
+     * @return описание нарушений или null, если сущность корректна
+     */
+    private String violations(Object entity) {
+        Set<ConstraintViolation<Object>> violations = validator.validate(entity);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    /**
+     * Разобранная строка файла. Пустой статус означает статус копии по умолчанию.
+     */
+    private record ImportRow(long line,
+                             String authorName,
+                             LocalDate authorBirthDate,
+                             String authorNationality,
+                             String title,
+                             String genre,
+                             Integer publishedYear,
+                             String inventoryNumber,
+                             CopyStatus status) {
+    }
+
+    /**
+     * Ключ сопоставления произведения.
+     */
+    private record OeuvreKey(Long authorId, String title, Integer publishedYear) {
+    }
+
+    /**
+     * Состояние импорта, накапливаемое между пачками.
+     */
+    private static final class ImportState {
+        private final Map<String, Long> authorIds = new HashMap<>();
+        private final Map<OeuvreKey, Long> oeuvreIds = new HashMap<>();
+        private final List<ImportReport.RowError> errors = new ArrayList<>();
+        private long rowsRead;
+        private long authorsCreated;
+        private long oeuvresCreated;
+        private long copiesCreated;
+        private long errorCount;
+
+        private void error(long line, String message) {
+            errorCount++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportReport.RowError(line, message));
+            }
+        }
+
+        private void merge(ChunkResult result) {
+            authorIds.putAll(result.authorIds);
+            oeuvreIds.putAll(result.oeuvreIds);
+            authorsCreated += result.authorsCreated;
+            oeuvresCreated += result.oeuvresCreated;
+            copiesCreated += result.copiesCreated;
+            addErrors(result.errors);
+        }
+
+        private void addErrors(Collection<ImportReport.RowError> rowErrors) {
+            for (ImportReport.RowError rowError : rowErrors) {
+                error(rowError.line(), rowError.message());
+            }
+        }
+    }
+
+    /**
+     * Результат записи одной пачки. Применяется к {@link ImportState} только после фиксации.
+     */
+    private static final class ChunkResult {
+        private final Map<String, Long> authorIds = new HashMap<>();
+        private final Map<OeuvreKey, Long> oeuvreIds = new HashMap<>();
+        private final Map<String, String> rejectedAuthors = new HashMap<>();
+        private final Map<OeuvreKey, String> rejectedOeuvres = new HashMap<>();
+        private final List<ImportReport.RowError> errors = new ArrayList<>();
+        private final CatalogueStatsService.Deltas stats = new CatalogueStatsService.Deltas();
+        private long authorsCreated;
+        private long oeuvresCreated;
+        private long copiesCreated;
+
+        private Long authorId(ImportState state, ImportRow row) {
+            Long id = state.authorIds.get(row.authorName());
+            return id != null ? id : authorIds.get(row.authorName());
+        }
+
+        private Long oeuvreId(ImportState state, ImportRow row) {
+            Long authorId = authorId(state, row);
+            if (authorId == null) {
+                return null;
+            }
+            OeuvreKey key = new OeuvreKey(authorId, row.title(), row.publishedYear());
+            Long id = state.oeuvreIds.get(key);
+            if (id == null) {
+                id = oeuvreIds.get(key);
+            }
+            if (id == null) {
+                errors.add(new ImportReport.RowError(row.line(),
+                        "произведение «" + row.title() + "»: " + rejectedOeuvres.get(key)));
+            }
+            return id;
+        }
+    }
+}
@@ -0,0 +1,477 @@
+package com.library.service;
+
+import com.library.entity.CatalogueStat;
+import com.library.entity.CopyStatus;
+import com.library.entity.Oeuvre;
+import com.library.repository.CatalogueStatRepository;
+import com.library.repository.CopyRepository;
+import com.library.repository.OeuvreRepository;
+import com.library.repository.projection.CatalogueStatRow;
+import com.library.repository.projection.CopyBulkRow;
+import com.library.repository.projection.GenreYearCount;
+import com.library.repository.projection.StatusCount;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.query.NativeQuery;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+
+/**
+ * Сводная статистика каталога: итоги, копии по статусам, жанры,
+ * десятилетия публикации и авторы с наибольшим числом копий.
+ *
+ * Счётчики хранятся в таблице catalogue_stat и поддерживаются приращениями:
+ * сервисы сообщают об изменениях каталога, и приращения одним оператором добавляются
+ * в таблицу catalogue_stat_delta в той же транзакции, что и изменение. Поэтому они
+ * фиксируются и откатываются вместе с ним, а запись каталога не ждёт блокировок общих
+ * строк счётчиков. Раз в секунду приращения переносятся в catalogue_stat; до переноса
+ * чтение складывает счётчик с его приращениями, так что главная страница точна на любом узле
+ * и читает несколько готовых строк вместо группировки таблиц.
+ *
+ * Изменения в обход сервисов приложения счётчики не видят; для исправления
+ * расхождений есть полный пересчёт {@link #recount()}.
+ */
+@Slf4j
+@Service
+public class CatalogueStatsService {
+
+    /** Интервал переноса приращений в счётчики, мс. */
+    static final long FOLD_INTERVAL_MILLIS = 1000;
+
+    /** Количество строк в списках жанров и авторов. */
+    public static final int TOP_SIZE = 10;
+
+    static final String TOTAL = "total";
+    static final String COPY_STATUS = "copy_status";
+    static final String GENRE = "genre";
+    static final String DECADE = "decade";
+    static final String AUTHOR_COPIES = "author_copies";
+
+    static final String AUTHORS = "authors";
+    static final String OEUVRES = "oeuvres";
+    static final String COPIES = "copies";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    /** Наибольшее количество приращений в одном операторе INSERT (по три параметра на строку). */
+    private static final int MAX_DELTAS_PER_INSERT = 1000;
+
+    private static final Comparator<CatalogueStat.Key> KEY_ORDER =
+            Comparator.comparing(CatalogueStat.Key::getKind).thenComparing(CatalogueStat.Key::getKey);
+
+    private final CatalogueStatRepository statRepository;
+    private final OeuvreRepository oeuvreRepository;
+    private final CopyRepository copyRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Конструктор сервиса с внедрением зависимостей.
+     *
+     * @param statRepository     репозиторий счётчиков
+     * @param oeuvreRepository   репозиторий произведений
+     * @param copyRepository     репозиторий копий
+     * @param transactionManager менеджер транзакций для переноса приращений и пересчёта
+     */
+    public CatalogueStatsService(CatalogueStatRepository statRepository,
+                                 OeuvreRepository oeuvreRepository,
+                                 CopyRepository copyRepository,
+                                 PlatformTransactionManager transactionManager) {
+        this.statRepository = statRepository;
+        this.oeuvreRepository = oeuvreRepository;
+        this.copyRepository = copyRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Учитывает нового автора.
+     */
+    public void authorCreated() {
+        Deltas deltas = new Deltas();
+        deltas.authors(1);
+        record(deltas);
+    }
+
+    /**
+     * Учитывает удаление автора вместе с его произведениями и копиями.
+     * Вызывается до удаления, в той же транзакции.
+     *
+     * @param authorId идентификатор автора
+     */
+    public void authorDeleting(Long authorId) {
+        Deltas deltas = new Deltas();
+        deltas.authors(-1);
+        for (GenreYearCount row : oeuvreRepository.countByGenreAndYearForAuthor(authorId)) {
+            deltas.oeuvres(row.genre(), row.publishedYear(), -row.count());
+        }
+        for (StatusCount row : copyRepository.countByStatusForAuthor(authorId)) {
+            deltas.copies(row.status(), authorId, -row.count());
+        }
+        record(deltas);
+    }
+
+    /**
+     * Учитывает новое произведение.
+     *
+     * @param oeuvre сохранённое произведение
+     */
+    public void oeuvreCreated(Oeuvre oeuvre) {
+        Deltas deltas = new Deltas();
+        deltas.oeuvres(oeuvre.getGenre(), oeuvre.getPublishedYear(), 1);
+        record(deltas);
+    }
+
+    /**
+     * Учитывает изменение жанра, года или автора произведения.
+     * При смене автора копии произведения переходят к новому автору.
+     *
+     * @param previousGenre    жанр до изменения
+     * @param previousYear     год публикации до изменения
+     * @param previousAuthorId идентификатор автора до изменения
+     * @param oeuvre           произведение после изменения
+     */
+    public void oeuvreUpdated(String previousGenre, Integer previousYear, Long previousAuthorId, Oeuvre oeuvre) {
+        Deltas deltas = new Deltas();
+        if (!Objects.equals(previousGenre, oeuvre.getGenre())
+                || !Objects.equals(previousYear, oeuvre.getPublishedYear())) {
+            deltas.oeuvres(previousGenre, previousYear, -1);
+            deltas.oeuvres(oeuvre.getGenre(), oeuvre.getPublishedYear(), 1);
+        }
+        Long authorId = oeuvre.getAuthor() == null ? null : oeuvre.getAuthor().getId();
+        if (!Objects.equals(previousAuthorId, authorId)) {
+            long copies = copyRepository.countByStatusForOeuvre(oeuvre.getId()).stream()
+                    .mapToLong(StatusCount::count)
+                    .sum();
+            deltas.authorCopies(previousAuthorId, -copies);
+            deltas.authorCopies(authorId, copies);
+        }
+        record(deltas);
+    }
+
+    /**
+     * Учитывает удаление произведения вместе с его копиями.
+     * Вызывается до удаления, в той же транзакции.
+     *
+     * @param oeuvre удаляемое произведение
+     */
+    public void oeuvreDeleting(Oeuvre oeuvre) {
+        Deltas deltas = new Deltas();
+        deltas.oeuvres(oeuvre.getGenre(), oeuvre.getPublishedYear(), -1);
+        Long authorId = oeuvre.getAuthor() == null ? null : oeuvre.getAuthor().getId();
+        for (StatusCount row : copyRepository.countByStatusForOeuvre(oeuvre.getId())) {
+            deltas.copies(row.status(), authorId, -row.count());
+        }
+        record(deltas);
+    }
+
+    /**
+     * Учитывает новую копию.
+     *
+     * @param status   статус копии
+     * @param oeuvreId идентификатор произведения
+     */
+    public void copyCreated(CopyStatus status, Long oeuvreId) {
+        copiesCreated(status, oeuvreId, 1);
+    }
+
+    /**
+     * Учитывает несколько новых копий одного произведения.
+     *
+     * @param status   статус копий
+     * @param oeuvreId идентификатор произведения
+     * @param count    количество копий
+     */
+    public void copiesCreated(CopyStatus status, Long oeuvreId, long count) {
+        Deltas deltas = new Deltas();
+        deltas.copies(status, authorIdOf(oeuvreId), count);
+        record(deltas);
+    }
+
+    /**
+     * Учитывает перенос копии к другому произведению.
+     *
+     * @param previousOeuvreId идентификатор произведения до изменения
+     * @param oeuvreId         идентификатор произведения после изменения
+     */
+    public void copyMoved(Long previousOeuvreId, Long oeuvreId) {
+        if (Objects.equals(previousOeuvreId, oeuvreId)) {
+            return;
+        }
+        Deltas deltas = new Deltas();
+        deltas.authorCopies(authorIdOf(previousOeuvreId), -1);
+        deltas.authorCopies(authorIdOf(oeuvreId), 1);
+        record(deltas);
+    }
+
+    /**
+     * Учитывает смену статуса копии.
+     *
+     * @param from прежний статус
+     * @param to   новый статус
+     */
+    public void copyStatusChanged(CopyStatus from, CopyStatus to) {
+        Deltas deltas = new Deltas();
+        deltas.add(COPY_STATUS, code(from), -1);
+        deltas.add(COPY_STATUS, code(to), 1);
+        record(deltas);
+    }
+
+    /**
+     * Учитывает массовую смену статуса копий.
+     *
+     * @param copies копии со статусами до изменения
+     * @param to     новый статус
+     */
+    public void copiesStatusChanged(Collection<CopyBulkRow> copies, CopyStatus to) {
+        Deltas deltas = new Deltas();
+        for (CopyBulkRow copy : copies) {
+            deltas.add(COPY_STATUS, code(copy.status()), -1);
+            deltas.add(COPY_STATUS, code(to), 1);
+        }
+        record(deltas);
+    }
+
+    /**
+     * Учитывает массовое удаление копий.
+     *
+     * @param copies удаляемые копии
+     */
+    public void copiesDeleted(Collection<CopyBulkRow> copies) {
+        Deltas deltas = new Deltas();
+        for (CopyBulkRow copy : copies) {
+            deltas.copies(copy.status(), copy.authorId(), -1);
+        }
+        record(deltas);
+    }
+
+    /**
+     * Возвращает данные панели статистики.
+     * Читает несколько строк счётчиков по индексам и ещё не перенесённые приращения —
+     * без группировки таблиц каталога.
+     *
+     * @return данные панели
+     */
+    @Transactional(readOnly = true)
+    public CatalogueDashboard getDashboard() {
+        Map<String, Long> totals = new HashMap<>();
+        Map<CopyStatus, Long> byStatus = new EnumMap<>(CopyStatus.class);
+        for (CopyStatus status : CopyStatus.values()) {
+            byStatus.put(status, 0L);
+        }
+        TreeMap<Integer, Long> decades = new TreeMap<>();
+
+        for (CatalogueStatRow row : statRepository.findRowsByKinds(List.of(TOTAL, COPY_STATUS, DECADE))) {
+            switch (row.kind()) {
+                case TOTAL -> totals.put(row.key(), row.value());
+                case COPY_STATUS -> byStatus.put(CopyStatus.fromCode(row.key().charAt(0)), row.value());
+                case DECADE -> {
+                    if (row.value() > 0) {
+                        decades.put(Integer.valueOf(row.key()), row.value());
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+
+        List<CatalogueDashboard.Bar> genreBars = bars(statRepository.findTopByKind(GENRE, TOP_SIZE).stream()
+                .map(row -> Map.entry(row.key(), row.value()))
+                .toList());
+        List<CatalogueDashboard.Bar> decadeBars = bars(decades.entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey() + "‑е", entry.getValue()))
+                .toList());
+
+        return new CatalogueDashboard(
+                new CatalogueCounts(totals.getOrDefault(AUTHORS, 0L),
+                        totals.getOrDefault(OEUVRES, 0L),
+                        totals.getOrDefault(COPIES, 0L)),
+                byStatus,
+                genreBars,
+                decadeBars,
+                statRepository.findTopAuthorsByCopies(TOP_SIZE));
+    }
+
+    /**
+     * Возвращает итоговое количество записей раздела каталога.
+     *
+     * @param section {@link #AUTHORS}, {@link #OEUVRES} или {@link #COPIES}
+     * @return количество записей
+     */
+    long total(String section) {
+        return statRepository.findValue(TOTAL, section);
+    }
+
+    /**
+     * Пересчитывает все счётчики по таблицам каталога.
+     * Нужен, если каталог менялся в обход приложения. Приращения, уже вошедшие в пересчёт,
+     * удаляются тем же оператором базы данных, поэтому они не учитываются дважды.
+     *
+     * @return количество записанных счётчиков
+     */
+    public long recount() {
+        Long written = transactionTemplate.execute(status -> statRepository.recount());
+        log.info("Статистика каталога пересчитана: {} счётчиков", written);
+        return written == null ? 0 : written;
+    }
+
+    /**
+     * Переносит накопленные приращения в счётчики одной транзакцией.
+     * Переносы с разных узлов и пересчёт выполняются по очереди (блокировка таблицы catalogue_stat);
+     * при ошибке приращения остаются в таблице и переносятся в следующий раз.
+     */
+    @Scheduled(fixedDelay = FOLD_INTERVAL_MILLIS)
+    public void fold() {
+        try {
+            transactionTemplate.execute(status -> statRepository.fold());
+        } catch (RuntimeException e) {
+            log.warn("Не удалось перенести приращения статистики каталога, повтор через {} мс", FOLD_INTERVAL_MILLIS, e);
+        }
+    }
+
+    /**
+     * Записывает приращения в таблицу catalogue_stat_delta в текущей транзакции,
+     * чтобы они фиксировались и откатывались вместе с изменением каталога.
+     * Вне транзакции приращения записываются в отдельной.
+     *
+     * @param deltas приращения
+     */
+    void record(Deltas deltas) {
+        if (deltas.values.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            insert(deltas);
+        } else {
+            transactionTemplate.executeWithoutResult(status -> insert(deltas));
+        }
+    }
+
+    /**
+     * Добавляет приращения многострочными операторами INSERT (обычно одним).
+     * Затрагиваемая таблица указана явно, иначе Hibernate считал бы изменённой
+     * любую таблицу и очищал бы кэш второго уровня при каждой записи.
+     */
+    private void insert(Deltas deltas) {
+        List<Map.Entry<CatalogueStat.Key, Long>> rows = new ArrayList<>(deltas.values.entrySet());
+        rows.sort(Map.Entry.comparingByKey(KEY_ORDER));
+        for (int from = 0; from < rows.size(); from += MAX_DELTAS_PER_INSERT) {
+            List<Map.Entry<CatalogueStat.Key, Long>> part =
+                    rows.subList(from, Math.min(rows.size(), from + MAX_DELTAS_PER_INSERT));
+            StringJoiner values = new StringJoiner(", ",
+                    "insert into catalogue_stat_delta (kind, stat_key, delta) values ", "");
+            for (int i = 0; i < part.size(); i++) {
+                values.add("(?" + (3 * i + 1) + ", ?" + (3 * i + 2) + ", ?" + (3 * i + 3) + ")");
+            }
+            Query query = entityManager.createNativeQuery(values.toString());
+            query.unwrap(NativeQuery.class).addSynchronizedQuerySpace("catalogue_stat_delta");
+            for (int i = 0; i < part.size(); i++) {
+                Map.Entry<CatalogueStat.Key, Long> row = part.get(i);
+                query.setParameter(3 * i + 1, row.getKey().getKind());
+                query.setParameter(3 * i + 2, row.getKey().getKey());
+                query.setParameter(3 * i + 3, row.getValue());
+            }
+            query.executeUpdate();
+        }
+    }
+
+    /**
+     * Идентификатор автора произведения; произведение обычно берётся из кэша второго уровня.
+     */
+    private Long authorIdOf(Long oeuvreId) {
+        if (oeuvreId == null) {
+            return null;
+        }
+        return oeuvreRepository.findById(oeuvreId)
+                .map(Oeuvre::getAuthor)
+                .map(author -> author.getId())
+                .orElse(null);
+    }
+
+    private static List<CatalogueDashboard.Bar> bars(List<Map.Entry<String, Long>> values) {
+        long max = values.stream().mapToLong(Map.Entry::getValue).max().orElse(0);
+        return values.stream()
+                .map(entry -> new CatalogueDashboard.Bar(entry.getKey(), entry.getValue(),
+                        max == 0 ? 0 : (int) (entry.getValue() * 100 / max)))
+                .toList();
+    }
+
+    private static String code(CopyStatus status) {
+        return String.valueOf((status == null ? CopyStatus.AVAILABLE : status).getCode());
+    }
+
+    /**
+     * Набор приращений одной операции (или пачки импорта).
+     */
+    static final class Deltas {
+
+        private final Map<CatalogueStat.Key, Long> values = new HashMap<>();
+
+        /**
+         * @param delta изменение количества авторов
+         */
+        void authors(long delta) {
+            add(TOTAL, AUTHORS, delta);
+        }
+
+        /**
+         * @param genre         жанр
+         * @param publishedYear год публикации (может быть null)
+         * @param delta         изменение количества произведений
+         */
+        void oeuvres(String genre, Integer publishedYear, long delta) {
+            add(TOTAL, OEUVRES, delta);
+            add(GENRE, genre, delta);
+            if (publishedYear != null) {
+                add(DECADE, String.valueOf(publishedYear / 10 * 10), delta);
+            }
+        }
+
+        /**
+         * @param status   статус копий (null — статус по умолчанию)
+         * @param authorId автор произведения (может быть null)
+         * @param delta    изменение количества копий
+         */
+        void copies(CopyStatus status, Long authorId, long delta) {
+            add(TOTAL, COPIES, delta);
+            add(COPY_STATUS, code(status), delta);
+            authorCopies(authorId, delta);
+        }
+
+        /**
+         * @param authorId автор (может быть null)
+         * @param delta    изменение количества копий его произведений
+         */
+        void authorCopies(Long authorId, long delta) {
+            if (authorId != null) {
+                add(AUTHOR_COPIES, authorId.toString(), delta);
+            }
+        }
+
+        void add(String kind, String key, long delta) {
+            if (delta == 0 || key == null) {
+                return;
+            }
+            String trimmed = key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key;
+            values.merge(new CatalogueStat.Key(kind, trimmed), delta, Long::sum);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.library.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.library.repository.CopyRepository;
+import com.library.repository.projection.CopyExportRow;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Сервис потоковой выгрузки инвентаря копий.
+ *
+ * Строки читаются из базы курсором и сразу записываются в выходной поток,
+ * поэтому расход памяти не зависит от размера таблицы, а первые байты
+ * уходят клиенту до окончания чтения. Выгружаются проекции, а не сущности,
+ * так что контекст постоянства не растёт и очищать его не требуется.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class CopyExportService {
+
+    /** Количество строк между принудительными сбросами выходного потока. */
+    static final int FLUSH_EVERY = 1000;
+
+    private static final String[] CSV_HEADER = {
+            "id", "inventory_number", "status", "oeuvre_id", "title", "author_name"};
+
+    private final CopyRepository copyRepository;
+    private final CopyStatusLabels copyStatusLabels;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Записывает инвентарь в формате CSV (UTF‑8 с BOM для табличных редакторов).
+     * Статус записывается названием («Доступно»), которое принимает и импорт.
+     *
+     * @param output выходной поток ответа
+     * @throws IOException при ошибке записи
+     */
+    public void writeCsv(OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        writer.write('\uFEFF');
+        CSVPrinter printer = new CSVPrinter(writer, CSVFormat.DEFAULT.builder().setHeader(CSV_HEADER).get());
+        writer.flush();
+
+        try (Stream<CopyExportRow> rows = copyRepository.streamExportRows()) {
+            Iterator<CopyExportRow> iterator = rows.iterator();
+            long written = 0;
+            while (iterator.hasNext()) {
+                CopyExportRow row = iterator.next();
+                printer.printRecord(row.id(), row.inventoryNumber(), copyStatusLabels.label(row.status()),
+                        row.oeuvreId(), row.title(), row.authorName());
+                if (++written % FLUSH_EVERY == 0) {
+                    printer.flush();
+                }
+            }
+        }
+        printer.flush();
+    }
+
+    /**
+     * Записывает инвентарь в формате NDJSON: по одному JSON‑объекту на строку.
+     * Статус записывается именем константы ({@code "AVAILABLE"}).
+     *
+     * @param output выходной поток ответа
+     * @throws IOException при ошибке записи
+     */
+    public void writeNdjson(OutputStream output) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(output);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+        // По умолчанию ObjectMapper сбрасывает поток после каждого значения, то есть после каждой строки
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        try (Stream<CopyExportRow> rows = copyRepository.streamExportRows()) {
+            Iterator<CopyExportRow> iterator = rows.iterator();
+            long written = 0;
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+                if (++written % FLUSH_EVERY == 0) {
+                    generator.flush();
+                }
+            }
+        }
+        generator.close();
+    }
+}
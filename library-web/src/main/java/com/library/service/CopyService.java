@@ -1,28 +1,104 @@
 package com.library.service;
 
 import com.library.entity.Copy;
+import com.library.entity.CopyStatus;
+import com.library.entity.Oeuvre;
 import com.library.repository.CopyRepository;
+import com.library.repository.LoanRepository;
+import com.library.repository.OeuvreRepository;
+import com.library.repository.projection.CopyBulkRow;
+import com.library.repository.projection.CopyListRow;
+import com.library.repository.projection.InventoryNumberRow;
+import com.library.repository.projection.VersionStamp;
+import io.micrometer.core.annotation.Timed;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.regex.Pattern;
 
 /**
  * Сервисный слой для работы с сущностью {@link Copy}.
  * Содержит бизнес‑логику, связанную с созданием, обновлением,
  * получением и удалением экземпляров произведений.
+ * Время выполнения публичных методов записывается в метрику library.service (section=copies).
  */
 @Service
+@Timed(value = "library.service", extraTags = {"section", "copies"}, histogram = true)
 public class CopyService {
 
+    private static final String DUPLICATE_INVENTORY_NUMBER = "Копия с таким инвентарным номером уже существует";
+    private static final String OEUVRE_REQUIRED = "Выберите произведение из списка";
+    private static final String OEUVRE_NOT_FOUND = "Выбранное произведение не найдено — выберите произведение из списка";
+    private static final String ON_LOAN_BY_CHECKOUT = "Статус «Выдано» устанавливается только оформлением выдачи";
+    private static final String RETURN_REQUIRED = "Копия выдана читателю — сначала оформите возврат";
+    private static final String STATUS_CHANGED = "Статус копии изменился, пока была открыта форма. Обновите страницу";
+    private static final String COPY_CHANGED = "Копию изменили, пока была открыта форма. Обновите страницу";
+    private static final String NOTHING_SELECTED = "Отметьте копии в списке";
+    private static final String STATUS_REQUIRED = "Выберите статус";
+    private static final String BAD_PREFIX = "Префикс номера — от 1 до 5 латинских букв или цифр";
+    private static final String IRREGULAR_NUMBERS = "С префиксом «%s» уже есть номера не по порядку — выберите другой префикс";
+    private static final String NUMBERS_EXHAUSTED = "Свободных номеров с префиксом «%s» осталось %d";
+
+    /** Наибольшее количество копий в одной массовой операции. */
+    public static final int MAX_BULK_SIZE = KeysetPage.MAX_SIZE;
+
+    /**
+     * Количество строк страницы «Все копии», читаемых одним запросом; после каждой порции
+     * ответ сбрасывается клиенту.
+     */
+    public static final int STREAM_CHUNK_SIZE = 500;
+
+    /** Длина инвентарных номеров, генерируемых при массовом добавлении. */
+    private static final int INVENTORY_NUMBER_LENGTH = 6;
+
+    private static final Pattern INVENTORY_PREFIX = Pattern.compile("[A-Z0-9]{1,5}");
+
+    /** SQLSTATE нарушения уникальности (стандарт SQL, PostgreSQL и H2). */
+    private static final String UNIQUE_VIOLATION = "23505";
+
     private final CopyRepository copyRepository;
+    private final LoanRepository loanRepository;
+    private final OeuvreRepository oeuvreRepository;
+    private final InventoryNumberIndex inventoryNumberIndex;
+    private final CatalogueStatsService catalogueStatsService;
 
     /**
-     * Конструктор сервиса с внедрением зависимости репозитория копий.
+     * Конструктор сервиса с внедрением зависимостей.
      *
-     * @param copyRepository репозиторий для работы с экземплярами произведений
+     * @param copyRepository        репозиторий для работы с экземплярами произведений
+     * @param loanRepository        репозиторий выдач
+     * @param oeuvreRepository      репозиторий произведений (ссылки на выбранное в форме произведение)
+     * @param inventoryNumberIndex  индекс инвентарных номеров в памяти
+     * @param catalogueStatsService сервис сводной статистики каталога
      */
-    public CopyService(CopyRepository copyRepository) {
+    public CopyService(CopyRepository copyRepository,
+                       LoanRepository loanRepository,
+                       OeuvreRepository oeuvreRepository,
+                       InventoryNumberIndex inventoryNumberIndex,
+                       CatalogueStatsService catalogueStatsService) {
         this.copyRepository = copyRepository;
+        this.loanRepository = loanRepository;
+        this.oeuvreRepository = oeuvreRepository;
+        this.inventoryNumberIndex = inventoryNumberIndex;
+        this.catalogueStatsService = catalogueStatsService;
     }
 
     /**
@@ -34,65 +110,309 @@ public class CopyService {
         return copyRepository.findAll();
     }
 
+    /**
+     * Возвращает страницу копий при курсорной пагинации по идентификатору.
+     * Строки возвращаются проекциями {@link CopyListRow}, а не управляемыми сущностями.
+     *
+     * @param after  идентификатор, после которого начинается страница (может быть null)
+     * @param before идентификатор, перед которым заканчивается страница (может быть null)
+     * @param size   размер страницы
+     * @return страница копий
+     */
+    public KeysetPage<CopyListRow> getPage(Long after, Long before, int size) {
+        return KeysetPage.load(after, before, size,
+                copyRepository::findListRowsAfter,
+                copyRepository::findListRowsBefore,
+                CopyListRow::id);
+    }
+
+    /**
+     * Передаёт обработчику все строки списка копий в порядке возрастания идентификатора.
+     * Строки читаются порциями по {@link #STREAM_CHUNK_SIZE} курсорной выборкой после последнего
+     * прочитанного идентификатора по мере того, как обработчик их перебирает, поэтому первые строки
+     * доступны сразу, а расход памяти не зависит от размера таблицы. Между порциями вызывается
+     * {@code afterChunk} (например, сброс ответа клиенту).
+     *
+     * Каждая порция читается в своей короткой транзакции, и соединение возвращается в пул,
+     * пока обработчик выводит строки и клиент их принимает: медленный клиент не занимает соединение
+     * на всё время загрузки. Порции поэтому видят разные снимки таблицы: копия, добавленная или
+     * удалённая во время вывода, может попасть или не попасть в список, но ни одна не повторится.
+     *
+     * @param handler    обработчик строк
+     * @param afterChunk действие после каждой полной порции строк
+     * @throws Exception исключение обработчика
+     */
+    public void streamListRows(ListRowsHandler handler, Runnable afterChunk) throws Exception {
+        handler.handle(new ChunkedIterator<>(
+                after -> copyRepository.findListRowsAfter(after, PageRequest.of(0, STREAM_CHUNK_SIZE)),
+                CopyListRow::id, afterChunk));
+    }
+
+    /**
+     * Возвращает отметку версии страницы списка копий для условного GET.
+     * Учитывает версии строк страницы, их произведений и общее количество копий в заголовке списка.
+     * Времени изменения отметка не содержит: его не сдвигает удаление копии.
+     *
+     * @param after  идентификатор, после которого начинается страница (может быть null)
+     * @param before идентификатор, перед которым заканчивается страница (может быть null)
+     * @param size   размер страницы
+     * @return отметка версии
+     */
+    public VersionStamp getPageStamp(Long after, Long before, int size) {
+        return new VersionStamp(copyRepository.findPageVersionTag(before != null || after == null ? 0L : after,
+                        before == null ? 0L : before,
+                        KeysetPage.fetchSize(size)), null);
+    }
+
+    /**
+     * Возвращает отметку версии страницы просмотра копии для условного GET.
+     *
+     * @param id идентификатор копии
+     * @return Optional с отметкой или пустой Optional, если копия не найдена
+     */
+    public Optional<VersionStamp> getStamp(Long id) {
+        return copyRepository.findVersionStampById(id);
+    }
+
+    /**
+     * Возвращает строки списка для набора копий одним запросом.
+     * Несуществующие идентификаторы пропускаются.
+     *
+     * @param ids идентификаторы копий
+     * @return строки в порядке возрастания идентификатора
+     */
+    public List<CopyListRow> getRowsByIds(Collection<Long> ids) {
+        return ids.isEmpty() ? List.of() : copyRepository.findListRowsByIdIn(ids);
+    }
+
     /**
      * Ищет копию по идентификатору.
+     * Произведение загружается тем же запросом, так как оно нужно
+     * и на странице просмотра, и в форме редактирования.
      *
      * @param id идентификатор копии
      * @return найденная копия
      * @throws RuntimeException если копия не найдена
      */
     public Copy getById(Long id) {
-        return copyRepository.findById(id)
+        return copyRepository.findWithOeuvreById(id)
                 .orElseThrow(() -> new RuntimeException("Копия не найдена"));
     }
 
+    /**
+     * Ищет копию по инвентарному номеру (сканирование штрихкода на выдаче).
+     * Номер, найденный в индексе в памяти, проверяется чтением копии по первичному ключу.
+     * Промах индекса проверяется запросом по уникальному индексу номера: копию могли создать
+     * на другом узле после заполнения индекса этого узла. Найденный так номер запоминается в индексе.
+     *
+     * @param inventoryNumber инвентарный номер
+     * @return Optional со строкой списка найденной копии
+     */
+    public Optional<CopyListRow> findByInventoryNumber(String inventoryNumber) {
+        String number = inventoryNumber == null ? "" : inventoryNumber.strip();
+        if (!inventoryNumberIndex.covers(number)) {
+            return copyRepository.findListRowByInventoryNumber(number);
+        }
+        Long id = inventoryNumberIndex.find(number);
+        if (id != null) {
+            Optional<CopyListRow> indexed = copyRepository.findListRowById(id)
+                    .filter(row -> number.equals(row.inventoryNumber()));
+            if (indexed.isPresent()) {
+                return indexed;
+            }
+        }
+        Optional<CopyListRow> found = copyRepository.findListRowByInventoryNumber(number);
+        found.ifPresent(row -> inventoryNumberIndex.put(row.inventoryNumber(), row.id()));
+        return found;
+    }
+
     /**
      * Создаёт новую копию произведения.
-     * Перед сохранением проверяет уникальность инвентарного номера.
+     * Уникальность инвентарного номера проверяет ограничение базы данных:
+     * отдельный запрос перед вставкой не выполняется и не создаёт гонки между проверкой и записью.
      *
      * @param copy объект копии
      * @return сохранённая копия
-     * @throws IllegalArgumentException если инвентарный номер уже существует
+     * @throws IllegalArgumentException если не выбрано произведение, инвентарный номер уже существует
+     *                                  или указан статус «Выдано»
      */
+    @Transactional
     public Copy create(Copy copy) {
-        if (copyRepository.existsByInventoryNumber(copy.getInventoryNumber())) {
-            throw new IllegalArgumentException("Копия с таким инвентарным номером уже существует");
+        copy.setOeuvre(oeuvreReference(copy));
+        if (copy.getStatus() == CopyStatus.ON_LOAN) {
+            throw new IllegalArgumentException(ON_LOAN_BY_CHECKOUT);
+        }
+        Copy saved = flushChecked(() -> copyRepository.saveAndFlush(copy));
+        inventoryNumberIndex.put(saved.getInventoryNumber(), saved.getId());
+        catalogueStatsService.copyCreated(saved.getStatus(), saved.getOeuvre().getId());
+        return saved;
+    }
+
+    /**
+     * Создаёт несколько копий одного произведения с последовательными инвентарными номерами
+     * вида «префикс + номер с ведущими нулями» (A00001, A00002, …), продолжая уже выданные номера.
+     * Копии вставляются одним пакетом JDBC; если параллельно заняли те же номера,
+     * уникальный индекс отклонит пакет целиком.
+     *
+     * @param template копия с произведением и статусом для всех новых копий
+     * @param prefix   префикс инвентарных номеров
+     * @param count    количество копий
+     * @return созданные копии
+     * @throws IllegalArgumentException если не выбрано произведение, указан статус «Выдано»,
+     *                                  неверен префикс или количество, или номеров не хватает
+     */
+    @Transactional
+    public List<Copy> createBatch(Copy template, String prefix, int count) {
+        Oeuvre oeuvre = oeuvreReference(template);
+        CopyStatus status = template.getStatus() == null ? CopyStatus.AVAILABLE : template.getStatus();
+        if (status == CopyStatus.ON_LOAN) {
+            throw new IllegalArgumentException(ON_LOAN_BY_CHECKOUT);
+        }
+        if (count < 1 || count > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException("Количество копий — от 1 до " + MAX_BULK_SIZE);
+        }
+        String normalized = prefix == null ? "" : prefix.strip().toUpperCase(Locale.ROOT);
+        if (!INVENTORY_PREFIX.matcher(normalized).matches()) {
+            throw new IllegalArgumentException(BAD_PREFIX);
+        }
+
+        int digits = INVENTORY_NUMBER_LENGTH - normalized.length();
+        long first = nextInventorySequence(normalized, digits);
+        long available = (long) Math.pow(10, digits) - first;
+        if (count > available) {
+            throw new IllegalArgumentException(String.format(NUMBERS_EXHAUSTED, normalized, Math.max(0, available)));
+        }
+
+        List<Copy> copies = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            copies.add(Copy.builder()
+                    .inventoryNumber(normalized + String.format("%0" + digits + "d", first + i))
+                    .status(status)
+                    .oeuvre(oeuvre)
+                    .build());
         }
-        return copyRepository.save(copy);
+        List<Copy> saved = flushChecked(() -> copyRepository.saveAllAndFlush(copies));
+        for (Copy copy : saved) {
+            inventoryNumberIndex.put(copy.getInventoryNumber(), copy.getId());
+        }
+        catalogueStatsService.copiesCreated(status, oeuvre.getId(), saved.size());
+        return saved;
     }
 
     /**
      * Обновляет данные существующей копии.
-     * Проверяет уникальность инвентарного номера, если он был изменён.
+     * Уникальность нового инвентарного номера проверяет ограничение базы данных.
+     * Форма передаёт версию копии, с которой она была открыта; если с тех пор копию изменили
+     * (в том числе выдали, вернули или сменили статус в списке), изменение отклоняется,
+     * а не затирает чужое. Статус меняется условным UPDATE от значения этой версии, поэтому
+     * и изменение между чтением и записью отклоняется.
+     * Статус «Выдано» ставится и снимается только выдачей и возвратом
+     * (снять его вручную можно, лишь если открытой выдачи нет).
      *
      * @param id      идентификатор копии
-     * @param updated объект с обновлёнными данными
+     * @param updated объект с обновлёнными данными и версией, с которой была открыта форма
      * @return обновлённая копия
-     * @throws IllegalArgumentException если новый инвентарный номер уже существует
+     * @throws IllegalArgumentException если не выбрано произведение, новый инвентарный номер уже существует,
+     *                                  копию изменили после открытия формы или статус нельзя изменить
      */
+    @Transactional
     public Copy update(Long id, Copy updated) {
+        Oeuvre oeuvre = oeuvreReference(updated);
         Copy existing = getById(id);
-
-        if (!existing.getInventoryNumber().equals(updated.getInventoryNumber())) {
-            if (copyRepository.existsByInventoryNumber(updated.getInventoryNumber())) {
-                throw new IllegalArgumentException("Копия с таким инвентарным номером уже существует");
-            }
+        if (updated.getVersion() == null || !updated.getVersion().equals(existing.getVersion())) {
+            throw new IllegalArgumentException(COPY_CHANGED);
         }
+        String previousNumber = existing.getInventoryNumber();
+        CopyStatus previousStatus = existing.getStatus();
+        Long previousOeuvreId = existing.getOeuvre() == null ? null : existing.getOeuvre().getId();
 
         existing.setInventoryNumber(updated.getInventoryNumber());
-        existing.setStatus(updated.getStatus());
-        existing.setOeuvre(updated.getOeuvre());
+        existing.setOeuvre(oeuvre);
 
-        return copyRepository.save(existing);
+        Copy saved = flushChecked(() -> copyRepository.saveAndFlush(existing));
+        if (updated.getStatus() != null && updated.getStatus() != previousStatus) {
+            changeStatus(saved, previousStatus, updated.getStatus());
+        }
+        if (!previousNumber.equals(saved.getInventoryNumber())) {
+            inventoryNumberIndex.remove(previousNumber, saved.getId());
+            inventoryNumberIndex.put(saved.getInventoryNumber(), saved.getId());
+        }
+        catalogueStatsService.copyMoved(previousOeuvreId, saved.getOeuvre().getId());
+        return saved;
     }
 
     /**
      * Удаляет копию по идентификатору.
+     * Выданную копию удалить нельзя: вместе с ней база данных удалила бы открытую выдачу.
+     * Строка копии блокируется до удаления, поэтому параллельная выдача дождётся его.
      *
      * @param id идентификатор копии
+     * @throws IllegalArgumentException если копия выдана читателю
      */
+    @Transactional
     public void delete(Long id) {
-        copyRepository.deleteById(id);
+        for (CopyBulkRow copy : copyRepository.lockBulkRowsByIdIn(List.of(id))) {
+            if (copy.status() == CopyStatus.ON_LOAN) {
+                throw new IllegalArgumentException(RETURN_REQUIRED);
+            }
+            copyRepository.deleteByIdIn(List.of(copy.id()));
+            inventoryNumberIndex.remove(copy.inventoryNumber(), copy.id());
+            catalogueStatsService.copiesDeleted(List.of(copy));
+        }
+    }
+
+    /**
+     * Меняет статус выбранных копий одним оператором UPDATE.
+     * Выбранные строки блокируются до конца транзакции, поэтому параллельная выдача
+     * дождётся изменения и увидит новый статус. Выданные копии и копии,
+     * уже находящиеся в этом статусе, пропускаются.
+     *
+     * @param ids    идентификаторы копий
+     * @param status новый статус
+     * @return сколько копий выбрано и сколько изменено
+     * @throws IllegalArgumentException если копии не выбраны, их слишком много или указан статус «Выдано»
+     */
+    @Transactional
+    public BulkCopyResult changeStatus(Collection<Long> ids, CopyStatus status) {
+        Set<Long> selected = bulkSelection(ids);
+        if (status == null) {
+            throw new IllegalArgumentException(STATUS_REQUIRED);
+        }
+        if (status == CopyStatus.ON_LOAN) {
+            throw new IllegalArgumentException(ON_LOAN_BY_CHECKOUT);
+        }
+        List<CopyBulkRow> changing = copyRepository.lockBulkRowsByIdIn(selected).stream()
+                .filter(copy -> copy.status() != status && copy.status() != CopyStatus.ON_LOAN)
+                .toList();
+        if (!changing.isEmpty()) {
+            copyRepository.updateStatusByIdIn(changing.stream().map(CopyBulkRow::id).toList(), status);
+            catalogueStatsService.copiesStatusChanged(changing, status);
+        }
+        return new BulkCopyResult(selected.size(), changing.size());
+    }
+
+    /**
+     * Удаляет выбранные копии одним оператором DELETE.
+     * Выданные копии пропускаются: сначала нужно оформить возврат.
+     *
+     * @param ids идентификаторы копий
+     * @return сколько копий выбрано и сколько удалено
+     * @throws IllegalArgumentException если копии не выбраны или их слишком много
+     */
+    @Transactional
+    public BulkCopyResult delete(Collection<Long> ids) {
+        Set<Long> selected = bulkSelection(ids);
+        List<CopyBulkRow> deleting = copyRepository.lockBulkRowsByIdIn(selected).stream()
+                .filter(copy -> copy.status() != CopyStatus.ON_LOAN)
+                .toList();
+        if (!deleting.isEmpty()) {
+            copyRepository.deleteByIdIn(deleting.stream().map(CopyBulkRow::id).toList());
+            inventoryNumberIndex.removeAll(deleting.stream()
+                    .map(copy -> new InventoryNumberRow(copy.id(), copy.inventoryNumber()))
+                    .toList());
+            catalogueStatsService.copiesDeleted(deleting);
+        }
+        return new BulkCopyResult(selected.size(), deleting.size());
     }
 
     /**
@@ -100,7 +420,172 @@ public class CopyService {
      *
      * @return список статусов
      */
-    public List<String> getStatuses() {
-        return List.of("Доступно", "Выдано", "Утеряно", "Повреждено");
+    public List<CopyStatus> getStatuses() {
+        return List.of(CopyStatus.values());
+    }
+
+    /**
+     * Считает доступные копии произведения.
+     *
+     * @param oeuvreId идентификатор произведения
+     * @return количество доступных копий
+     */
+    public long countAvailable(Long oeuvreId) {
+        return copyRepository.countAvailableByOeuvreId(oeuvreId);
+    }
+
+    /**
+     * Считает доступные копии для набора произведений одним запросом.
+     *
+     * @param oeuvreIds идентификаторы произведений
+     * @return количество доступных копий по идентификатору произведения
+     */
+    public Map<Long, Long> countAvailable(Collection<Long> oeuvreIds) {
+        return copyRepository.countAvailableByOeuvreIds(oeuvreIds);
+    }
+
+    /**
+     * Меняет статус копии, если в базе данных он всё ещё равен прочитанному.
+     */
+    private void changeStatus(Copy copy, CopyStatus from, CopyStatus to) {
+        if (to == CopyStatus.ON_LOAN) {
+            throw new IllegalArgumentException(ON_LOAN_BY_CHECKOUT);
+        }
+        if (from == CopyStatus.ON_LOAN && loanRepository.existsByCopyIdAndReturnDateIsNull(copy.getId())) {
+            throw new IllegalArgumentException(RETURN_REQUIRED);
+        }
+        if (copyRepository.updateStatus(copy.getId(), from, to) == 0) {
+            throw new IllegalArgumentException(STATUS_CHANGED);
+        }
+        copy.setStatus(to);
+        catalogueStatsService.copyStatusChanged(from, to);
+    }
+
+    /**
+     * Проверяет, что у копии выбрано существующее произведение, и возвращает ссылку на него.
+     * Форма передаёт только идентификатор произведения, а такой объект без версии
+     * Hibernate считает несохранённым и не может связать с копией.
+     */
+    private Oeuvre oeuvreReference(Copy copy) {
+        if (copy.getOeuvre() == null || copy.getOeuvre().getId() == null) {
+            throw new IllegalArgumentException(OEUVRE_REQUIRED);
+        }
+        if (!oeuvreRepository.existsById(copy.getOeuvre().getId())) {
+            throw new IllegalArgumentException(OEUVRE_NOT_FOUND);
+        }
+        return oeuvreRepository.getReferenceById(copy.getOeuvre().getId());
+    }
+
+    /**
+     * Проверяет выбор копий для массовой операции.
+     *
+     * @return различные идентификаторы в порядке выбора
+     */
+    private Set<Long> bulkSelection(Collection<Long> ids) {
+        Set<Long> selected = ids == null ? Set.of() : new LinkedHashSet<>(ids);
+        if (selected.isEmpty()) {
+            throw new IllegalArgumentException(NOTHING_SELECTED);
+        }
+        if (selected.size() > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException("За один раз можно обработать не больше " + MAX_BULK_SIZE + " копий");
+        }
+        return selected;
+    }
+
+    /**
+     * Возвращает первый свободный порядковый номер после наибольшего
+     * уже выданного номера с этим префиксом.
+     */
+    private long nextInventorySequence(String prefix, int digits) {
+        String last = copyRepository.findMaxInventoryNumberBetween(
+                prefix + "0".repeat(digits), prefix + "9".repeat(digits), INVENTORY_NUMBER_LENGTH);
+        if (last == null) {
+            return 1;
+        }
+        String sequence = last.substring(prefix.length());
+        if (!sequence.chars().allMatch(c -> c >= '0' && c <= '9')) {
+            throw new IllegalArgumentException(String.format(IRREGULAR_NUMBERS, prefix));
+        }
+        return Long.parseLong(sequence) + 1;
+    }
+
+    /**
+     * Сохраняет копии и сразу выполняет SQL, чтобы нарушение ограничений
+     * было обнаружено здесь, а не при фиксации внешней транзакции.
+     * Нарушение уникальности (в таблице copy это только инвентарный номер)
+     * и изменение копии другой транзакцией после её чтения превращаются в сообщения для формы.
+     */
+    private <T> T flushChecked(Supplier<T> save) {
+        try {
+            return save.get();
+        } catch (DataIntegrityViolationException e) {
+            if (e.getCause() instanceof ConstraintViolationException violation
+                    && UNIQUE_VIOLATION.equals(violation.getSQLState())) {
+                throw new IllegalArgumentException(DUPLICATE_INVENTORY_NUMBER, e);
+            }
+            throw e;
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new IllegalArgumentException(COPY_CHANGED, e);
+        }
+    }
+
+    /**
+     * Обработчик строк, читаемых порциями в {@link #streamListRows(ListRowsHandler, Runnable)}.
+     */
+    @FunctionalInterface
+    public interface ListRowsHandler {
+
+        /**
+         * @param rows строки списка; читать их можно только внутри этого вызова
+         * @throws Exception ошибка обработки (например, отрисовки шаблона)
+         */
+        void handle(Iterator<CopyListRow> rows) throws Exception;
+    }
+
+    /**
+     * Итератор, читающий строки порциями после идентификатора последней прочитанной строки.
+     * Следующая порция запрашивается, когда предыдущая уже обработана; перед запросом вызывается
+     * действие на границе порций.
+     */
+    private static final class ChunkedIterator<T> implements Iterator<T> {
+
+        private final LongFunction<Slice<T>> loader;
+        private final ToLongFunction<T> id;
+        private final Runnable afterChunk;
+        private Slice<T> chunk;
+        private Iterator<T> rows;
+        private long lastId;
+
+        private ChunkedIterator(LongFunction<Slice<T>> loader, ToLongFunction<T> id, Runnable afterChunk) {
+            this.loader = loader;
+            this.id = id;
+            this.afterChunk = afterChunk;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (chunk == null) {
+                load();
+            } else if (!rows.hasNext() && chunk.hasNext()) {
+                afterChunk.run();
+                load();
+            }
+            return rows.hasNext();
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T row = rows.next();
+            lastId = id.applyAsLong(row);
+            return row;
+        }
+
+        private void load() {
+            chunk = loader.apply(lastId);
+            rows = chunk.getContent().iterator();
+        }
     }
 }
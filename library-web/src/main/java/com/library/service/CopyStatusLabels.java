@@ -0,0 +1,47 @@
+package com.library.service;
+
+import com.library.entity.CopyStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Названия статусов копий из messages.properties (ключи copy.status.*)
+ * для форматов обмена данными: импорта и выгрузки CSV.
+ * Шаблоны получают названия напрямую через #{copy.status.…}.
+ */
+@Component
+@RequiredArgsConstructor
+public class CopyStatusLabels {
+
+    private static final String KEY_PREFIX = "copy.status.";
+
+    private final MessageSource messageSource;
+
+    /**
+     * @param status статус
+     * @return название статуса для пользователя
+     */
+    public String label(CopyStatus status) {
+        return messageSource.getMessage(KEY_PREFIX + status.name(), null, status.name(),
+                LocaleContextHolder.getLocale());
+    }
+
+    /**
+     * Распознаёт статус по названию («Доступно») или имени константы («AVAILABLE») без учёта регистра.
+     *
+     * @param text текст статуса
+     * @return статус или пустой Optional, если текст не распознан
+     */
+    public Optional<CopyStatus> parse(String text) {
+        for (CopyStatus status : CopyStatus.values()) {
+            if (status.name().equalsIgnoreCase(text) || label(status).equalsIgnoreCase(text)) {
+                return Optional.of(status);
+            }
+        }
+        return Optional.empty();
+    }
+}
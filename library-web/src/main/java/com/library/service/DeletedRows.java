@@ -0,0 +1,12 @@
+package com.library.service;
+
+/**
+ * Итог каскадного удаления автора или произведения.
+ * История выдач удаляется базой данных вместе с копиями и здесь не учитывается.
+ *
+ * @param authors количество удалённых авторов
+ * @param oeuvres количество удалённых произведений
+ * @param copies  количество удалённых копий
+ */
+public record DeletedRows(long authors, long oeuvres, long copies) {
+}
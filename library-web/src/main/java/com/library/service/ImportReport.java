@@ -0,0 +1,39 @@
+package com.library.service;
+
+import java.util.List;
+
+/**
+ * Итог пакетного импорта каталога из CSV.
+ *
+ * @param rowsRead        количество прочитанных строк данных (без заголовка)
+ * @param authorsCreated  количество созданных авторов
+ * @param oeuvresCreated  количество созданных произведений
+ * @param copiesCreated   количество созданных копий
+ * @param errorCount      общее количество строк с ошибками
+ * @param errors          ошибки по строкам (не более {@link CatalogueImportService#MAX_REPORTED_ERRORS})
+ * @param elapsedMillis   длительность импорта в миллисекундах
+ */
+public record ImportReport(long rowsRead,
+                           long authorsCreated,
+                           long oeuvresCreated,
+                           long copiesCreated,
+                           long errorCount,
+                           List<RowError> errors,
+                           long elapsedMillis) {
+
+    /**
+     * @return скорость обработки в строках в секунду
+     */
+    public long rowsPerSecond() {
+        return elapsedMillis == 0 ? rowsRead : rowsRead * 1000 / elapsedMillis;
+    }
+
+    /**
+     * Ошибка в конкретной строке файла.
+     *
+     * @param line    номер строки в файле (заголовок — строка 1)
+     * @param message описание ошибки
+     */
+    public record RowError(long line, String message) {
+    }
+}
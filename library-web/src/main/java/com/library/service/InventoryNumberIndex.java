@@ -0,0 +1,252 @@
+package com.library.service;
+
+import com.library.repository.CopyRepository;
+import com.library.repository.projection.InventoryNumberRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Индекс инвентарных номеров копий в памяти: «номер → идентификатор копии».
+ *
+ * Инвентарный номер не длиннее 8 ASCII-символов упаковывается в {@code long}
+ * (по 7 бит на символ), поэтому индекс хранится в массивах примитивов
+ * {@link LongLongHashMap}. Номера с другими символами индекс не обслуживает —
+ * для них {@link #covers(String)} возвращает false и поиск идёт в базу данных.
+ *
+ * Индекс заполняется при старте приложения и обновляется сервисами при записи.
+ * Изменения, сделанные внутри транзакции, применяются только после её фиксации.
+ * Копии, созданные другими узлами или в обход приложения, индекс не видит, поэтому
+ * отсутствие номера в индексе ничего не доказывает: {@link CopyService} проверяет промах
+ * запросом к базе данных, а найденный номер проверяет чтением копии по первичному ключу.
+ *
+ * Поиск выполняется под блокировкой чтения и не мешает параллельным поискам;
+ * изменения и заполнение берут блокировку записи.
+ */
+@Slf4j
+@Component
+public class InventoryNumberIndex {
+
+    private static final int MAX_PACKED_LENGTH = 8;
+
+    private final CopyRepository copyRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private LongLongHashMap ids = new LongLongHashMap(0);
+    private volatile boolean ready;
+    private List<Consumer<LongLongHashMap>> pendingWhileLoading;
+
+    /**
+     * Конструктор индекса.
+     *
+     * @param copyRepository     репозиторий копий
+     * @param transactionManager менеджер транзакций для чтения при заполнении
+     */
+    public InventoryNumberIndex(CopyRepository copyRepository, PlatformTransactionManager transactionManager) {
+        this.copyRepository = copyRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Заполняет индекс после запуска приложения.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    /**
+     * Перечитывает все инвентарные номера из базы данных.
+     * Пока индекс заполняется, {@link #covers(String)} возвращает false;
+     * изменения, зафиксированные за это время, применяются к новому индексу после загрузки.
+     */
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            pendingWhileLoading = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        long started = System.currentTimeMillis();
+        LongLongHashMap loaded = readOnlyTransaction.execute(status -> {
+            LongLongHashMap map = new LongLongHashMap((int) copyRepository.count());
+            try (Stream<InventoryNumberRow> rows = copyRepository.streamInventoryNumbers()) {
+                rows.forEach(row -> {
+                    long key = pack(row.inventoryNumber());
+                    if (key != 0L) {
+                        map.put(key, row.id());
+                    }
+                });
+            }
+            return map;
+        });
+        lock.writeLock().lock();
+        try {
+            pendingWhileLoading.forEach(change -> change.accept(loaded));
+            pendingWhileLoading = null;
+            ids = loaded;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Индекс инвентарных номеров заполнен: {} записей за {} мс",
+                loaded.size(), System.currentTimeMillis() - started);
+    }
+
+    /**
+     * @param inventoryNumber инвентарный номер
+     * @return true — если ответ индекса по этому номеру достоверен
+     *         (индекс заполнен и номер может быть упакован)
+     */
+    public boolean covers(String inventoryNumber) {
+        return ready && pack(inventoryNumber) != 0L;
+    }
+
+    /**
+     * Ищет копию по инвентарному номеру.
+     *
+     * @param inventoryNumber инвентарный номер
+     * @return идентификатор копии или null, если номера нет в индексе
+     */
+    public Long find(String inventoryNumber) {
+        long key = pack(inventoryNumber);
+        if (key == 0L) {
+            return null;
+        }
+        long id;
+        lock.readLock().lock();
+        try {
+            id = ids.get(key);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return id == LongLongHashMap.NO_VALUE ? null : id;
+    }
+
+    /**
+     * Запоминает номер копии. Внутри транзакции применяется после её фиксации.
+     *
+     * @param inventoryNumber инвентарный номер
+     * @param copyId          идентификатор копии
+     */
+    public void put(String inventoryNumber, long copyId) {
+        long key = pack(inventoryNumber);
+        if (key != 0L) {
+            afterCommit(map -> map.put(key, copyId));
+        }
+    }
+
+    /**
+     * Забывает номер копии, если он всё ещё принадлежит этой копии.
+     * Внутри транзакции применяется после её фиксации; проверка идентификатора не даёт
+     * запоздавшему удалению стереть номер, который позже успела занять другая копия.
+     *
+     * @param inventoryNumber инвентарный номер
+     * @param copyId          идентификатор копии
+     */
+    public void remove(String inventoryNumber, long copyId) {
+        long key = pack(inventoryNumber);
+        if (key != 0L) {
+            afterCommit(map -> removeIfOwned(map, key, copyId));
+        }
+    }
+
+    /**
+     * Забывает номера копий, удалённых одним оператором (каждый — если он всё ещё принадлежит своей копии).
+     * Внутри транзакции применяется после её фиксации.
+     *
+     * @param copies идентификаторы и инвентарные номера копий
+     */
+    public void removeAll(Collection<InventoryNumberRow> copies) {
+        List<InventoryNumberRow> packable = copies.stream()
+                .filter(copy -> pack(copy.inventoryNumber()) != 0L)
+                .toList();
+        if (!packable.isEmpty()) {
+            afterCommit(map -> {
+                for (InventoryNumberRow copy : packable) {
+                    removeIfOwned(map, pack(copy.inventoryNumber()), copy.id());
+                }
+            });
+        }
+    }
+
+    /**
+     * @return количество номеров в индексе
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ids.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void afterCommit(Consumer<LongLongHashMap> change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(change);
+                }
+            });
+        } else {
+            apply(change);
+        }
+    }
+
+    private void apply(Consumer<LongLongHashMap> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(ids);
+            if (pendingWhileLoading != null) {
+                pendingWhileLoading.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void removeIfOwned(LongLongHashMap map, long key, long copyId) {
+        if (map.get(key) == copyId) {
+            map.remove(key);
+        }
+    }
+
+    /**
+     * Упаковывает номер в long: ведущая единица и по 7 бит на символ.
+     *
+     * @return упакованный номер или 0, если номер пуст, слишком длинный или содержит не-ASCII символы
+     */
+    static long pack(String inventoryNumber) {
+        if (inventoryNumber == null || inventoryNumber.isEmpty() || inventoryNumber.length() > MAX_PACKED_LENGTH) {
+            return 0L;
+        }
+        long key = 1L;
+        for (int i = 0; i < inventoryNumber.length(); i++) {
+            char c = inventoryNumber.charAt(i);
+            if (c == 0 || c > 0x7F) {
+                return 0L;
+            }
+            key = (key << 7) | c;
+        }
+        return key;
+    }
+}
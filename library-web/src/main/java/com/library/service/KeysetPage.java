@@ -0,0 +1,127 @@
+package com.library.service;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Страница данных при курсорной (keyset) пагинации по идентификатору.
+ * Вместо смещения (OFFSET) хранит идентификаторы первой и последней записи,
+ * поэтому стоимость запроса не зависит от того, насколько далеко пролистан список.
+ *
+ * @param items          записи текущей страницы в порядке возрастания идентификатора
+ * @param size           запрошенный размер страницы
+ * @param previousCursor идентификатор первой записи, если есть предыдущая страница, иначе null
+ * @param nextCursor     идентификатор последней записи, если есть следующая страница, иначе null
+ * @param <T>            тип записи
+ */
+public record KeysetPage<T>(List<T> items, int size, Long previousCursor, Long nextCursor) {
+
+    /** Размер страницы по умолчанию. */
+    public static final int DEFAULT_SIZE = 50;
+
+    /** Максимально допустимый размер страницы. */
+    public static final int MAX_SIZE = 200;
+
+    /**
+     * @return true — если есть предыдущая страница
+     */
+    public boolean hasPrevious() {
+        return previousCursor != null;
+    }
+
+    /**
+     * @return true — если есть следующая страница
+     */
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    /**
+     * Возвращает количество строк, которое читает загрузка страницы:
+     * размер страницы, ограниченный {@link #MAX_SIZE}, и ещё одна строка
+     * для определения соседней страницы.
+     *
+     * @param size желаемый размер страницы
+     * @return количество читаемых строк
+     */
+    public static int fetchSize(int size) {
+        return clamp(size) + 1;
+    }
+
+    /**
+     * Преобразует записи страницы, сохраняя курсоры.
+     *
+     * @param mapper функция преобразования записи
+     * @param <R>    тип преобразованной записи
+     * @return страница с преобразованными записями
+     */
+    public <R> KeysetPage<R> map(Function<? super T, ? extends R> mapper) {
+        List<R> mapped = new ArrayList<>(items.size());
+        for (T item : items) {
+            mapped.add(mapper.apply(item));
+        }
+        return new KeysetPage<>(mapped, size, previousCursor, nextCursor);
+    }
+
+    /**
+     * Загружает страницу, двигаясь вперёд от курсора {@code after}
+     * или назад от курсора {@code before}.
+     * Если оба курсора не заданы, возвращается первая страница.
+     *
+     * @param after    идентификатор, после которого начинается страница (может быть null)
+     * @param before   идентификатор, перед которым заканчивается страница (может быть null)
+     * @param size     желаемый размер страницы
+     * @param forward  запрос «id > курсор» с сортировкой по возрастанию
+     * @param backward запрос «id < курсор» с сортировкой по убыванию
+     * @param idOf     функция получения идентификатора записи
+     * @param <T>      тип записи
+     * @return страница данных
+     */
+    public static <T> KeysetPage<T> load(Long after,
+                                         Long before,
+                                         int size,
+                                         BiFunction<Long, Pageable, Slice<T>> forward,
+                                         BiFunction<Long, Pageable, Slice<T>> backward,
+                                         Function<T, Long> idOf) {
+        int limit = clamp(size);
+        Pageable pageable = PageRequest.of(0, limit);
+
+        if (before != null) {
+            Slice<T> slice = backward.apply(before, pageable);
+            if (slice.hasNext()) {
+                List<T> items = new ArrayList<>(slice.getContent());
+                Collections.reverse(items);
+                return of(items, limit, true, true, idOf);
+            }
+            // Дошли до начала списка — отдаём полную первую страницу
+            after = null;
+        }
+
+        Slice<T> slice = forward.apply(after == null ? 0L : after, pageable);
+        return of(slice.getContent(), limit, after != null, slice.hasNext(), idOf);
+    }
+
+    private static int clamp(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    private static <T> KeysetPage<T> of(List<T> items,
+                                        int size,
+                                        boolean hasPrevious,
+                                        boolean hasNext,
+                                        Function<T, Long> idOf) {
+        if (items.isEmpty()) {
+            return new KeysetPage<>(items, size, null, null);
+        }
+        Long previous = hasPrevious ? idOf.apply(items.get(0)) : null;
+        Long next = hasNext ? idOf.apply(items.get(items.size() - 1)) : null;
+        return new KeysetPage<>(items, size, previous, next);
+    }
+}
@@ -0,0 +1,143 @@
+package com.library.service;
+
+import com.library.entity.CopyStatus;
+import com.library.entity.Loan;
+import com.library.repository.CopyRepository;
+import com.library.repository.LoanRepository;
+import com.library.repository.projection.LoanRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Сервис выдачи и возврата экземпляров.
+ *
+ * Копия захватывается условным оператором
+ * {@code UPDATE copy SET status = 'L' WHERE id = ? AND status = 'A'}:
+ * проверка доступности и запись выполняются в базе данных за один шаг
+ * под строковой блокировкой, поэтому две стойки выдачи не могут выдать
+ * одну копию дважды, а выдачи разных копий друг друга не ждут.
+ * Возврат так же закрывает выдачу условным UPDATE.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class LoanService {
+
+    /** Срок выдачи по умолчанию, в днях. */
+    public static final int DEFAULT_LOAN_DAYS = 14;
+
+    /** Количество выдач в истории на странице копии. */
+    static final int HISTORY_SIZE = 10;
+
+    private static final int MAX_BORROWER_LENGTH = 255;
+
+    private final LoanRepository loanRepository;
+    private final CopyRepository copyRepository;
+    private final CatalogueStatsService catalogueStatsService;
+
+    /**
+     * Возвращает страницу выдач на руках при курсорной пагинации по идентификатору.
+     *
+     * @param after  идентификатор, после которого начинается страница (может быть null)
+     * @param before идентификатор, перед которым заканчивается страница (может быть null)
+     * @param size   размер страницы
+     * @return страница открытых выдач
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<LoanRow> getOpenPage(Long after, Long before, int size) {
+        return KeysetPage.load(after, before, size,
+                loanRepository::findOpenRowsAfter,
+                loanRepository::findOpenRowsBefore,
+                LoanRow::id);
+    }
+
+    /**
+     * Возвращает последние выдачи копии, начиная с самой поздней.
+     * Открытая выдача, если она есть, всегда первая: новая выдача
+     * возможна только после возврата предыдущей.
+     *
+     * @param copyId идентификатор копии
+     * @return не более {@link #HISTORY_SIZE} выдач
+     */
+    @Transactional(readOnly = true)
+    public List<LoanRow> getHistory(Long copyId) {
+        return loanRepository.findRowsByCopyId(copyId, PageRequest.of(0, HISTORY_SIZE));
+    }
+
+    /**
+     * @return количество экземпляров на руках
+     */
+    @Transactional(readOnly = true)
+    public long countOpen() {
+        return loanRepository.countByReturnDateIsNull();
+    }
+
+    /**
+     * @return количество просроченных выдач
+     */
+    @Transactional(readOnly = true)
+    public long countOverdue() {
+        return loanRepository.countByReturnDateIsNullAndDueDateBefore(LocalDate.now());
+    }
+
+    /**
+     * Выдаёт копию читателю.
+     *
+     * @param copyId   идентификатор копии
+     * @param borrower читатель
+     * @param dueDate  срок возврата; null — через {@link #DEFAULT_LOAN_DAYS} дней
+     * @return созданная выдача
+     * @throws IllegalArgumentException если не указан читатель или срок возврата уже прошёл
+     * @throws IllegalStateException    если копия не найдена или не доступна для выдачи
+     */
+    public Loan checkout(Long copyId, String borrower, LocalDate dueDate) {
+        String name = borrower == null ? "" : borrower.strip();
+        if (name.isEmpty()) {
+            throw new IllegalArgumentException("Укажите читателя");
+        }
+        if (name.length() > MAX_BORROWER_LENGTH) {
+            throw new IllegalArgumentException("Имя читателя не должно содержать более "
+                    + MAX_BORROWER_LENGTH + " символов");
+        }
+        LocalDate today = LocalDate.now();
+        LocalDate due = dueDate == null ? today.plusDays(DEFAULT_LOAN_DAYS) : dueDate;
+        if (due.isBefore(today)) {
+            throw new IllegalArgumentException("Срок возврата не может быть раньше сегодняшнего дня");
+        }
+
+        if (copyRepository.updateStatus(copyId, CopyStatus.AVAILABLE, CopyStatus.ON_LOAN) == 0) {
+            throw new IllegalStateException("Копия уже выдана или недоступна для выдачи");
+        }
+        catalogueStatsService.copyStatusChanged(CopyStatus.AVAILABLE, CopyStatus.ON_LOAN);
+        return loanRepository.save(Loan.builder()
+                .copy(copyRepository.getReferenceById(copyId))
+                .borrower(name)
+                .loanDate(today)
+                .dueDate(due)
+                .build());
+    }
+
+    /**
+     * Принимает экземпляр обратно: закрывает выдачу и делает копию доступной.
+     *
+     * @param loanId идентификатор выдачи
+     * @return идентификатор возвращённой копии
+     * @throws IllegalStateException если выдача не найдена или уже закрыта
+     */
+    public Long returnLoan(Long loanId) {
+        Long copyId = loanRepository.findCopyIdById(loanId)
+                .orElseThrow(() -> new IllegalStateException("Выдача не найдена"));
+        if (loanRepository.close(loanId, LocalDate.now()) == 0) {
+            throw new IllegalStateException("Экземпляр по этой выдаче уже возвращён");
+        }
+        if (copyRepository.updateStatus(copyId, CopyStatus.ON_LOAN, CopyStatus.AVAILABLE) > 0) {
+            catalogueStatsService.copyStatusChanged(CopyStatus.ON_LOAN, CopyStatus.AVAILABLE);
+        }
+        return copyId;
+    }
+}
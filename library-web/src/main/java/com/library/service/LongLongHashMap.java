@@ -0,0 +1,140 @@
+package com.library.service;
+
+/**
+ * Хеш-таблица «long → long» с открытой адресацией и линейным пробированием.
+ * Ключи и значения хранятся в двух массивах примитивов, без объектов-обёрток,
+ * поэтому на миллион записей уходит около 32 МБ вместо ~100 МБ у {@code HashMap<String, Long>}.
+ *
+ * Ключ 0 зарезервирован под пустую ячейку. Класс не потокобезопасен.
+ */
+final class LongLongHashMap {
+
+    /** Значение, возвращаемое при отсутствии ключа. */
+    static final long NO_VALUE = -1L;
+
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private long[] values;
+    private int size;
+    private int mask;
+
+    LongLongHashMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * @param key ключ (не 0)
+     * @return значение или {@link #NO_VALUE}, если ключа нет
+     */
+    long get(long key) {
+        int slot = slot(key);
+        while (keys[slot] != 0L) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NO_VALUE;
+    }
+
+    /**
+     * Добавляет или заменяет значение.
+     *
+     * @param key   ключ (не 0)
+     * @param value значение
+     */
+    void put(long key, long value) {
+        if (key == 0L) {
+            throw new IllegalArgumentException("Ключ 0 зарезервирован");
+        }
+        int slot = slot(key);
+        while (keys[slot] != 0L) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > keys.length * 3 / 4) {
+            rehash(keys.length * 2);
+        }
+    }
+
+    /**
+     * Удаляет ключ. Последующие элементы цепочки сдвигаются назад,
+     * поэтому «надгробия» не накапливаются.
+     *
+     * @param key ключ
+     */
+    void remove(long key) {
+        int slot = slot(key);
+        while (keys[slot] != key) {
+            if (keys[slot] == 0L) {
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        size--;
+
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (keys[next] != 0L) {
+            int home = slot(keys[next]);
+            // Элемент можно перенести в освободившуюся ячейку, если она лежит
+            // на пути от его «домашней» ячейки до текущей
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = 0L;
+        values[gap] = 0L;
+    }
+
+    /**
+     * @return количество записей
+     */
+    int size() {
+        return size;
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0L) {
+                int slot = slot(oldKeys[i]);
+                while (keys[slot] != 0L) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity * 3 / 4 < expectedSize) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
@@ -0,0 +1,39 @@
+package com.library.service;
+
+/**
+ * Нормализованный запрос подсказок для полей с автодополнением.
+ *
+ * @param text  текст запроса без пробелов по краям
+ * @param limit максимальное количество подсказок
+ */
+record LookupQuery(String text, int limit) {
+
+    /** Максимальное количество подсказок в одном ответе. */
+    static final int MAX_RESULTS = 50;
+
+    /**
+     * Минимальная длина запроса для поиска подстроки.
+     * Триграммный индекс не помогает на более коротких строках,
+     * поэтому для них выполняется только поиск по началу.
+     */
+    static final int FRAGMENT_MIN_LENGTH = 3;
+
+    /**
+     * Количество самых похожих совпадений подстроки, из которых выбираются подсказки.
+     * Ограничивает сортировку, когда фрагмент встречается в большой части таблицы.
+     */
+    static final int FRAGMENT_CANDIDATES = 200;
+
+    static LookupQuery of(String text, int limit) {
+        String normalized = text == null ? "" : text.trim();
+        return new LookupQuery(normalized, Math.max(1, Math.min(limit, MAX_RESULTS)));
+    }
+
+    boolean isEmpty() {
+        return text.isEmpty();
+    }
+
+    boolean isPrefixOnly() {
+        return text.length() < FRAGMENT_MIN_LENGTH;
+    }
+}
@@ -0,0 +1,41 @@
+package com.library.service;
+
+/**
+ * Параметры поиска произведений.
+ *
+ * @param text     поисковая фраза (название, имя автора или жанр)
+ * @param genre    фильтр по жанру без учёта регистра (пустая строка — без фильтра)
+ * @param yearFrom нижняя граница года публикации включительно (может быть null)
+ * @param yearTo   верхняя граница года публикации включительно (может быть null)
+ */
+public record OeuvreSearchQuery(String text, String genre, Integer yearFrom, Integer yearTo) {
+
+    /**
+     * Нормализует параметры: обрезает пробелы и заменяет null пустыми строками.
+     */
+    public OeuvreSearchQuery {
+        text = text == null ? "" : text.strip();
+        genre = genre == null ? "" : genre.strip();
+    }
+
+    /**
+     * @return true — если поисковая фраза не задана
+     */
+    public boolean isEmpty() {
+        return text.isEmpty();
+    }
+
+    /**
+     * @return нижняя граница года для запроса
+     */
+    int yearFromOrMin() {
+        return yearFrom == null ? Integer.MIN_VALUE : yearFrom;
+    }
+
+    /**
+     * @return верхняя граница года для запроса
+     */
+    int yearToOrMax() {
+        return yearTo == null ? Integer.MAX_VALUE : yearTo;
+    }
+}
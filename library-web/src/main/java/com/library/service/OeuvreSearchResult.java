@@ -0,0 +1,30 @@
+package com.library.service;
+
+import com.library.repository.projection.OeuvreSearchRow;
+
+import java.util.List;
+
+/**
+ * Страница результатов поиска произведений.
+ *
+ * @param query       параметры поиска
+ * @param items       найденные произведения в порядке убывания релевантности
+ * @param page        номер страницы (с нуля)
+ * @param size        размер страницы
+ * @param hasNext     true — если есть следующая страница
+ * @param approximate true — если точных совпадений нет и показаны похожие написания
+ */
+public record OeuvreSearchResult(OeuvreSearchQuery query,
+                                 List<OeuvreSearchRow> items,
+                                 int page,
+                                 int size,
+                                 boolean hasNext,
+                                 boolean approximate) {
+
+    /**
+     * @return true — если есть предыдущая страница
+     */
+    public boolean hasPrevious() {
+        return page > 0;
+    }
+}
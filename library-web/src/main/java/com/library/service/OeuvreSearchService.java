@@ -0,0 +1,63 @@
+package com.library.service;
+
+import com.library.repository.OeuvreRepository;
+import com.library.repository.projection.OeuvreSearchRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Сервис поиска произведений.
+ * Сначала выполняется полнотекстовый поиск; если он ничего не нашёл
+ * (например, из-за опечатки), выполняется нечёткий поиск по сходству слов.
+ * Страницы выбираются запросом на одну строку больше размера страницы,
+ * поэтому подсчёт общего количества совпадений не требуется.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class OeuvreSearchService {
+
+    /** Размер страницы по умолчанию. */
+    public static final int DEFAULT_SIZE = 20;
+
+    /** Максимально допустимый размер страницы. */
+    public static final int MAX_SIZE = 100;
+
+    /** Номер последней доступной страницы: дальше релевантность выдачи теряет смысл. */
+    public static final int MAX_PAGE = 49;
+
+    private final OeuvreRepository oeuvreRepository;
+
+    /**
+     * Ищет произведения по заданным параметрам.
+     *
+     * @param query параметры поиска
+     * @param page  номер страницы (с нуля)
+     * @param size  размер страницы
+     * @return страница результатов; пустая, если поисковая фраза не задана
+     */
+    public OeuvreSearchResult search(OeuvreSearchQuery query, int page, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_SIZE));
+        int pageIndex = Math.max(0, Math.min(page, MAX_PAGE));
+        if (query.isEmpty()) {
+            return new OeuvreSearchResult(query, List.of(), 0, limit, false, false);
+        }
+
+        int offset = pageIndex * limit;
+        boolean approximate = false;
+        List<OeuvreSearchRow> rows = oeuvreRepository.searchFullText(query.text(), query.genre(),
+                query.yearFromOrMin(), query.yearToOrMax(), limit + 1, offset);
+        if (rows.isEmpty()) {
+            rows = oeuvreRepository.searchSimilar(query.text(), query.genre(),
+                    query.yearFromOrMin(), query.yearToOrMax(), limit + 1, offset);
+            approximate = true;
+        }
+
+        boolean hasNext = rows.size() > limit && pageIndex < MAX_PAGE;
+        List<OeuvreSearchRow> items = rows.size() > limit ? rows.subList(0, limit) : rows;
+        return new OeuvreSearchResult(query, items, pageIndex, limit, hasNext, approximate);
+    }
+}
@@ -1,10 +1,21 @@
 package com.library.service;
 
+import com.library.entity.Author;
 import com.library.entity.Oeuvre;
+import com.library.repository.AuthorRepository;
+import com.library.repository.CopyRepository;
 import com.library.repository.OeuvreRepository;
+import com.library.repository.projection.InventoryNumberRow;
+import com.library.repository.projection.LookupItem;
+import com.library.repository.projection.OeuvreListRow;
+import com.library.repository.projection.VersionStamp;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,12 +23,21 @@ import java.util.Optional;
  * Сервисный слой для работы с сущностью {@link Oeuvre}.
  * Содержит бизнес‑логику, связанную с получением, созданием,
  * обновлением и удалением литературных произведений.
+ * Время выполнения публичных методов записывается в метрику library.service (section=oeuvres).
  */
 @Service
+@Timed(value = "library.service", extraTags = {"section", "oeuvres"}, histogram = true)
 @RequiredArgsConstructor
 public class OeuvreService {
 
+    private static final String AUTHOR_NOT_FOUND = "Выбранный автор не найден — выберите автора из списка";
+    private static final String COPIES_ON_LOAN = "Выдано копий произведения: %d — сначала оформите возврат";
+
     private final OeuvreRepository oeuvreRepository;
+    private final AuthorRepository authorRepository;
+    private final CopyRepository copyRepository;
+    private final CatalogueStatsService catalogueStatsService;
+    private final InventoryNumberIndex inventoryNumberIndex;
 
     /**
      * Возвращает список всех произведений.
@@ -28,6 +48,78 @@ public class OeuvreService {
         return oeuvreRepository.findAll();
     }
 
+    /**
+     * Возвращает страницу произведений при курсорной пагинации по идентификатору.
+     * Строки возвращаются проекциями {@link OeuvreListRow}, а не управляемыми сущностями.
+     *
+     * @param after  идентификатор, после которого начинается страница (может быть null)
+     * @param before идентификатор, перед которым заканчивается страница (может быть null)
+     * @param size   размер страницы
+     * @return страница произведений
+     */
+    public KeysetPage<OeuvreListRow> getOeuvresPage(Long after, Long before, int size) {
+        return KeysetPage.load(after, before, size,
+                oeuvreRepository::findListRowsAfter,
+                oeuvreRepository::findListRowsBefore,
+                OeuvreListRow::id);
+    }
+
+    /**
+     * Возвращает отметку версии страницы списка произведений для условного GET.
+     * Учитывает версии строк страницы, их авторов, доступность копий и общее количество произведений в заголовке списка.
+     * Времени изменения отметка не содержит: его не сдвигает удаление произведения или копии.
+     *
+     * @param after  идентификатор, после которого начинается страница (может быть null)
+     * @param before идентификатор, перед которым заканчивается страница (может быть null)
+     * @param size   размер страницы
+     * @return отметка версии
+     */
+    public VersionStamp getOeuvresPageStamp(Long after, Long before, int size) {
+        return new VersionStamp(oeuvreRepository.findPageVersionTag(before != null || after == null ? 0L : after,
+                        before == null ? 0L : before,
+                        KeysetPage.fetchSize(size)), null);
+    }
+
+    /**
+     * Возвращает отметку версии страницы просмотра произведения для условного GET.
+     * Времени изменения отметка не содержит: его не сдвигает удаление копии произведения.
+     *
+     * @param id идентификатор произведения
+     * @return Optional с отметкой или пустой Optional, если произведение не найдено
+     */
+    public Optional<VersionStamp> getOeuvreStamp(Long id) {
+        return oeuvreRepository.findVersionTagById(id).map(tag -> new VersionStamp(tag, null));
+    }
+
+    /**
+     * Возвращает строки списка для набора произведений одним запросом.
+     * Несуществующие идентификаторы пропускаются.
+     *
+     * @param ids идентификаторы произведений
+     * @return строки в порядке возрастания идентификатора
+     */
+    public List<OeuvreListRow> getOeuvreRowsByIds(Collection<Long> ids) {
+        return ids.isEmpty() ? List.of() : oeuvreRepository.findListRowsByIdIn(ids);
+    }
+
+    /**
+     * Возвращает подсказки для выбора произведения по названию.
+     * Запросы короче трёх символов ищут по началу названия, остальные — по вхождению.
+     *
+     * @param query введённый текст
+     * @param limit максимальное количество подсказок
+     * @return подсказки с именем автора (пустой список для пустого запроса)
+     */
+    public List<LookupItem> lookupOeuvres(String query, int limit) {
+        LookupQuery lookup = LookupQuery.of(query, limit);
+        if (lookup.isEmpty()) {
+            return List.of();
+        }
+        return lookup.isPrefixOnly()
+                ? oeuvreRepository.lookupByTitlePrefix(lookup.text(), lookup.limit())
+                : oeuvreRepository.lookupByTitleFragment(lookup.text(), LookupQuery.FRAGMENT_CANDIDATES, lookup.limit());
+    }
+
     /**
      * Ищет произведение по идентификатору.
      *
@@ -38,14 +130,38 @@ public class OeuvreService {
         return oeuvreRepository.findById(id);
     }
 
+    /**
+     * Ищет произведение по идентификатору вместе с автором.
+     * Используется страницами просмотра и редактирования, где выводится имя автора.
+     * Оба объекта читаются по первичному ключу и обычно берутся из кэша второго уровня
+     * без обращения к базе данных.
+     *
+     * @param id идентификатор произведения
+     * @return Optional с найденным произведением или пустой Optional, если произведение не найдено
+     */
+    @Transactional(readOnly = true)
+    public Optional<Oeuvre> getOeuvreWithAuthor(Long id) {
+        Optional<Oeuvre> oeuvre = oeuvreRepository.findById(id);
+        oeuvre.map(Oeuvre::getAuthor).ifPresent(Hibernate::initialize);
+        return oeuvre;
+    }
+
     /**
      * Сохраняет новое произведение в базе данных.
      *
      * @param oeuvre объект произведения
      * @return сохранённое произведение
+     * @throws IllegalArgumentException если выбранный автор не найден
      */
+    @Transactional
     public Oeuvre saveOeuvre(Oeuvre oeuvre) {
-        return oeuvreRepository.save(oeuvre);
+        boolean created = oeuvre.getId() == null;
+        oeuvre.setAuthor(authorReference(oeuvre.getAuthor()));
+        Oeuvre saved = oeuvreRepository.save(oeuvre);
+        if (created) {
+            catalogueStatsService.oeuvreCreated(saved);
+        }
+        return saved;
     }
 
     /**
@@ -56,28 +172,68 @@ public class OeuvreService {
      * @return обновлённое произведение
      * @throws RuntimeException если произведение с указанным ID не найдено
      */
+    @Transactional
     public Oeuvre updateOeuvre(Long id, Oeuvre updated) {
         return oeuvreRepository.findById(id)
                 .map(existing -> {
+                    String previousGenre = existing.getGenre();
+                    Integer previousYear = existing.getPublishedYear();
+                    Long previousAuthorId = existing.getAuthor() == null ? null : existing.getAuthor().getId();
+
                     existing.setTitle(updated.getTitle());
                     existing.setGenre(updated.getGenre());
                     existing.setPublishedYear(updated.getPublishedYear());
-                    existing.setAuthor(updated.getAuthor());
-                    return oeuvreRepository.save(existing);
+                    existing.setAuthor(authorReference(updated.getAuthor()));
+                    Oeuvre saved = oeuvreRepository.save(existing);
+                    catalogueStatsService.oeuvreUpdated(previousGenre, previousYear, previousAuthorId, saved);
+                    return saved;
                 })
                 .orElseThrow(() -> new RuntimeException("Произведение не найдено"));
     }
 
     /**
-     * Удаляет произведение по идентификатору.
+     * Удаляет произведение по идентификатору вместе с его копиями.
+     * Копии удаляются одним оператором DELETE, без загрузки коллекции;
+     * историю выдач удаляет база данных, поэтому произведение с выданными копиями удалить нельзя.
      *
      * @param id идентификатор произведения
-     * @throws RuntimeException если произведение не найдено
+     * @return количество удалённых строк
+     * @throws RuntimeException         если произведение не найдено
+     * @throws IllegalArgumentException если копии произведения выданы читателям
      */
-    public void deleteOeuvre(Long id) {
-        if (!oeuvreRepository.existsById(id)) {
-            throw new RuntimeException("Произведение не найдено");
+    @Transactional
+    public DeletedRows deleteOeuvre(Long id) {
+        // Сначала блокируются произведение и его копии: статистика и индекс номеров
+        // должны считаться по тем же строкам, которые затем удаляются
+        Oeuvre oeuvre = oeuvreRepository.lockById(id)
+                .orElseThrow(() -> new RuntimeException("Произведение не найдено"));
+        List<InventoryNumberRow> numbers = copyRepository.lockInventoryNumbersByOeuvreId(id);
+        // Открытые выдачи база данных удалила бы вместе с копиями
+        long onLoan = copyRepository.countOnLoanByOeuvreId(id);
+        if (onLoan > 0) {
+            throw new IllegalArgumentException(String.format(COPIES_ON_LOAN, onLoan));
+        }
+        catalogueStatsService.oeuvreDeleting(oeuvre);
+        inventoryNumberIndex.removeAll(numbers);
+        long copies = copyRepository.deleteByOeuvreId(id);
+        long oeuvres = oeuvreRepository.deleteRowById(id);
+        return new DeletedRows(0, oeuvres, copies);
+    }
+
+    /**
+     * Возвращает ссылку на выбранного автора.
+     * Форма передаёт только идентификатор автора, а такой объект без версии
+     * Hibernate считает несохранённым и не может связать с произведением.
+     *
+     * @throws IllegalArgumentException если автора с таким идентификатором нет (удалён или подменён в форме)
+     */
+    private Author authorReference(Author author) {
+        if (author == null || author.getId() == null) {
+            return author;
+        }
+        if (!authorRepository.existsById(author.getId())) {
+            throw new IllegalArgumentException(AUTHOR_NOT_FOUND);
         }
-        oeuvreRepository.deleteById(id);
+        return authorRepository.getReferenceById(author.getId());
     }
 }
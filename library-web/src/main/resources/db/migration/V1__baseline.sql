@@ -0,0 +1,38 @@
+-- Исходная схема каталога в том виде, в каком её создавала первая версия приложения
+-- через spring.jpa.hibernate.ddl-auto=update: идентификаторы IDENTITY, строки varchar(255),
+-- статус копии — русское название.
+-- В таких базах эта миграция не выполняется: Flyway принимает существующую схему за версию 1
+-- (spring.flyway.baseline-on-migrate). Новая база создаётся ею же, поэтому дальше обе
+-- проходят одни и те же миграции и приходят к одной схеме.
+
+CREATE TABLE author
+(
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    name varchar(150) NOT NULL,
+    birth_date date,
+    nationality varchar(255),
+    biography varchar(500),
+    CONSTRAINT author_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE oeuvre
+(
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    title varchar(255) NOT NULL,
+    genre varchar(255) NOT NULL,
+    published_year integer NOT NULL,
+    author_id bigint,
+    CONSTRAINT oeuvre_pkey PRIMARY KEY (id),
+    CONSTRAINT oeuvre_author_fk FOREIGN KEY (author_id) REFERENCES author (id)
+);
+
+CREATE TABLE copy
+(
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    inventory_number varchar(255) NOT NULL,
+    status varchar(255) NOT NULL,
+    oeuvre_id bigint,
+    CONSTRAINT copy_pkey PRIMARY KEY (id),
+    CONSTRAINT copy_inventory_number_key UNIQUE (inventory_number),
+    CONSTRAINT copy_oeuvre_fk FOREIGN KEY (oeuvre_id) REFERENCES oeuvre (id)
+);
@@ -0,0 +1,63 @@
+-- Переход от исходной схемы (V1) к схеме сущностей Author, Oeuvre, Copy, Loan и CatalogueStat.
+-- Промежуточные сборки создавали часть этих объектов через ddl-auto=update,
+-- поэтому каждый оператор пропускает уже существующие.
+
+-- Идентификаторы выделяются Hibernate из последовательностей блоками по 50 (allocationSize = 50).
+-- Последовательности начинаются за текущим максимальным id, чтобы новые блоки
+-- не пересекались с существующими строками; IDENTITY у столбцов id больше не нужен.
+CREATE SEQUENCE IF NOT EXISTS author_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS oeuvre_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS copy_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS loan_seq START WITH 1 INCREMENT BY 50;
+
+SELECT setval('author_seq', (SELECT COALESCE(MAX(id), 0) FROM author) + 50)
+WHERE (SELECT last_value FROM author_seq) < (SELECT COALESCE(MAX(id), 0) FROM author) + 50;
+
+SELECT setval('oeuvre_seq', (SELECT COALESCE(MAX(id), 0) FROM oeuvre) + 50)
+WHERE (SELECT last_value FROM oeuvre_seq) < (SELECT COALESCE(MAX(id), 0) FROM oeuvre) + 50;
+
+SELECT setval('copy_seq', (SELECT COALESCE(MAX(id), 0) FROM copy) + 50)
+WHERE (SELECT last_value FROM copy_seq) < (SELECT COALESCE(MAX(id), 0) FROM copy) + 50;
+
+ALTER TABLE author ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE oeuvre ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE copy ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+-- Версия строки (оптимистическая блокировка, ETag) и время изменения (Last-Modified).
+-- Существующие строки получают значения по умолчанию.
+ALTER TABLE author
+    ADD COLUMN IF NOT EXISTS version bigint DEFAULT 0 NOT NULL,
+    ADD COLUMN IF NOT EXISTS updated_at timestamp(6) with time zone DEFAULT current_timestamp NOT NULL;
+
+ALTER TABLE oeuvre
+    ADD COLUMN IF NOT EXISTS version bigint DEFAULT 0 NOT NULL,
+    ADD COLUMN IF NOT EXISTS updated_at timestamp(6) with time zone DEFAULT current_timestamp NOT NULL;
+
+ALTER TABLE copy
+    ADD COLUMN IF NOT EXISTS version bigint DEFAULT 0 NOT NULL,
+    ADD COLUMN IF NOT EXISTS updated_at timestamp(6) with time zone DEFAULT current_timestamp NOT NULL;
+
+-- История выдач удаляется вместе с копией
+CREATE TABLE IF NOT EXISTS loan
+(
+    id bigint NOT NULL,
+    copy_id bigint NOT NULL,
+    borrower varchar(255) NOT NULL,
+    loan_date date NOT NULL,
+    due_date date NOT NULL,
+    return_date date,
+    CONSTRAINT loan_pkey PRIMARY KEY (id),
+    CONSTRAINT loan_copy_fk FOREIGN KEY (copy_id) REFERENCES copy (id) ON DELETE CASCADE
+);
+
+SELECT setval('loan_seq', (SELECT COALESCE(MAX(id), 0) FROM loan) + 50)
+WHERE (SELECT last_value FROM loan_seq) < (SELECT COALESCE(MAX(id), 0) FROM loan) + 50;
+
+-- Сводная статистика каталога (заполняется в V7)
+CREATE TABLE IF NOT EXISTS catalogue_stat
+(
+    kind varchar(32) NOT NULL,
+    stat_key varchar(255) NOT NULL,
+    value bigint NOT NULL,
+    CONSTRAINT catalogue_stat_pkey PRIMARY KEY (kind, stat_key)
+);
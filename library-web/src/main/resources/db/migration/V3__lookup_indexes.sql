@@ -0,0 +1,10 @@
+-- Индексы для подсказок в формах (автодополнение по автору и названию).
+-- Короткие запросы (1–2 символа) ищут по началу строки через text_pattern_ops,
+-- запросы от 3 символов ищут подстроку через триграммный GIN-индекс.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS author_name_prefix_idx ON author (lower(name) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS author_name_trgm_idx ON author USING gin (lower(name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS oeuvre_title_prefix_idx ON oeuvre (lower(title) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS oeuvre_title_trgm_idx ON oeuvre USING gin (lower(title) gin_trgm_ops);
@@ -0,0 +1,57 @@
+-- Полнотекстовый поиск по произведениям.
+-- В столбце search_vector хранится документ для поиска: название (вес A),
+-- имя автора (вес B) и жанр (вес C). Столбец заполняют триггеры, поэтому
+-- запрос «Толстой война» находит произведение по названию и автору одновременно,
+-- а ранжирование не разбирает текст заново для каждой найденной строки.
+
+ALTER TABLE oeuvre ADD COLUMN IF NOT EXISTS search_vector tsvector;
+
+CREATE OR REPLACE FUNCTION oeuvre_search_vector(p_title text, p_genre text, p_author_id bigint)
+    RETURNS tsvector
+    LANGUAGE sql STABLE AS
+$$
+SELECT setweight(to_tsvector('russian', coalesce(p_title, '')), 'A')
+           || setweight(to_tsvector('russian', coalesce((SELECT name FROM author WHERE id = p_author_id), '')), 'B')
+           || setweight(to_tsvector('russian', coalesce(p_genre, '')), 'C')
+$$;
+
+CREATE OR REPLACE FUNCTION oeuvre_search_vector_refresh() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    NEW.search_vector := oeuvre_search_vector(NEW.title, NEW.genre, NEW.author_id);
+    RETURN NEW;
+END
+$$;
+
+CREATE OR REPLACE TRIGGER oeuvre_search_vector_refresh
+    BEFORE INSERT OR UPDATE OF title, genre, author_id ON oeuvre
+    FOR EACH ROW EXECUTE FUNCTION oeuvre_search_vector_refresh();
+
+-- При переименовании автора пересчитываем документы его произведений
+CREATE OR REPLACE FUNCTION author_search_vector_refresh() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF NEW.name IS DISTINCT FROM OLD.name THEN
+        UPDATE oeuvre
+        SET search_vector = oeuvre_search_vector(title, genre, author_id)
+        WHERE author_id = NEW.id;
+    END IF;
+    RETURN NULL;
+END
+$$;
+
+CREATE OR REPLACE TRIGGER author_search_vector_refresh
+    AFTER UPDATE OF name ON author
+    FOR EACH ROW EXECUTE FUNCTION author_search_vector_refresh();
+
+-- Заполнение документов для строк, созданных до появления триггеров
+UPDATE oeuvre
+SET search_vector = oeuvre_search_vector(title, genre, author_id)
+WHERE search_vector IS NULL;
+
+CREATE INDEX IF NOT EXISTS oeuvre_search_vector_idx ON oeuvre USING gin (search_vector);
+
+-- Поиск произведений автора: триггер переименования и нечёткий поиск по имени автора
+CREATE INDEX IF NOT EXISTS oeuvre_author_id_idx ON oeuvre (author_id);
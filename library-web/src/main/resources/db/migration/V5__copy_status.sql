@@ -0,0 +1,30 @@
+-- Статус копии хранится однобуквенным кодом (см. CopyStatus):
+-- A — доступна, L — выдана, X — утеряна, D — повреждена.
+-- Столбец, созданный прежней версией как varchar с русскими названиями,
+-- однократно переводится в char(1).
+DO
+$$
+BEGIN
+    IF (SELECT data_type
+        FROM information_schema.columns
+        WHERE table_schema = current_schema()
+          AND table_name = 'copy'
+          AND column_name = 'status') <> 'character' THEN
+        ALTER TABLE copy
+            ALTER COLUMN status TYPE char(1) USING
+                CASE status
+                    WHEN 'Доступно' THEN 'A'
+                    WHEN 'Выдано' THEN 'L'
+                    WHEN 'Утеряно' THEN 'X'
+                    WHEN 'Повреждено' THEN 'D'
+                    ELSE status
+                END;
+    END IF;
+END
+$$;
+
+-- Количество копий произведения по статусам; заодно служит индексом внешнего ключа oeuvre_id
+CREATE INDEX IF NOT EXISTS copy_oeuvre_status_idx ON copy (oeuvre_id, status);
+
+-- Доступные копии произведения
+CREATE INDEX IF NOT EXISTS copy_available_oeuvre_idx ON copy (oeuvre_id) WHERE status = 'A';
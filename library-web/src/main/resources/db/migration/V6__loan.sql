@@ -0,0 +1,10 @@
+-- У копии не больше одной открытой выдачи (return_date IS NULL).
+-- Основную защиту от двойной выдачи даёт условный UPDATE статуса копии,
+-- индекс страхует от записей в обход приложения.
+CREATE UNIQUE INDEX IF NOT EXISTS loan_open_copy_idx ON loan (copy_id) WHERE return_date IS NULL;
+
+-- История выдач копии; заодно служит индексом внешнего ключа copy_id
+CREATE INDEX IF NOT EXISTS loan_copy_idx ON loan (copy_id, id);
+
+-- Список выдач на руках
+CREATE INDEX IF NOT EXISTS loan_open_idx ON loan (id) WHERE return_date IS NULL;
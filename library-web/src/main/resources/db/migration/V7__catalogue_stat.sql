@@ -0,0 +1,48 @@
+-- Сводная статистика каталога для главной страницы (см. CatalogueStatsService).
+-- Приложение поддерживает счётчики приращениями; функция пересчитывает их целиком
+-- и нужна для первого заполнения и для исправления расхождений.
+CREATE OR REPLACE FUNCTION catalogue_stat_recount() RETURNS bigint AS
+$$
+DECLARE
+    written bigint;
+BEGIN
+    -- Параллельные приращения ждут окончания пересчёта
+    LOCK TABLE catalogue_stat IN EXCLUSIVE MODE;
+    DELETE FROM catalogue_stat;
+
+    INSERT INTO catalogue_stat (kind, stat_key, value)
+    SELECT 'total', 'authors', count(*) FROM author
+    UNION ALL
+    SELECT 'total', 'oeuvres', count(*) FROM oeuvre
+    UNION ALL
+    SELECT 'total', 'copies', count(*) FROM copy
+    UNION ALL
+    SELECT 'copy_status', status, count(*) FROM copy GROUP BY status
+    UNION ALL
+    SELECT 'genre', left(genre, 255), count(*) FROM oeuvre GROUP BY left(genre, 255)
+    UNION ALL
+    SELECT 'decade', (published_year / 10 * 10)::text, count(*) FROM oeuvre GROUP BY published_year / 10
+    UNION ALL
+    SELECT 'author_copies', o.author_id::text, count(*)
+    FROM copy c
+             JOIN oeuvre o ON o.id = c.oeuvre_id
+    WHERE o.author_id IS NOT NULL
+    GROUP BY o.author_id;
+
+    GET DIAGNOSTICS written = ROW_COUNT;
+    RETURN written;
+END
+$$ LANGUAGE plpgsql;
+
+-- Первое заполнение
+DO
+$$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM catalogue_stat) THEN
+        PERFORM catalogue_stat_recount();
+    END IF;
+END
+$$;
+
+-- Первые строки по убыванию значения: популярные жанры и авторы с наибольшим числом копий
+CREATE INDEX IF NOT EXISTS catalogue_stat_kind_value_idx ON catalogue_stat (kind, value DESC);
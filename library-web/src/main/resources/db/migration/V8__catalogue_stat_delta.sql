@@ -0,0 +1,84 @@
+-- Приращения сводной статистики каталога (см. CatalogueStatsService).
+-- Транзакция, изменяющая каталог, добавляет сюда строки приращений вместе со своими изменениями,
+-- поэтому приращения не теряются при падении узла и не конкурируют за общие строки catalogue_stat.
+-- Периодически они переносятся в catalogue_stat функцией catalogue_stat_fold();
+-- до переноса читатели складывают значение счётчика с его приращениями.
+CREATE TABLE catalogue_stat_delta
+(
+    id bigint GENERATED ALWAYS AS IDENTITY,
+    kind varchar(32) NOT NULL,
+    stat_key varchar(255) NOT NULL,
+    delta bigint NOT NULL,
+    CONSTRAINT catalogue_stat_delta_pkey PRIMARY KEY (id)
+);
+
+CREATE INDEX catalogue_stat_delta_key_idx ON catalogue_stat_delta (kind, stat_key);
+
+-- Переносит накопленные приращения в счётчики.
+-- Удаление и прибавление выполняются одним оператором, поэтому приращения транзакций,
+-- не зафиксированных к его началу, остаются до следующего переноса.
+CREATE OR REPLACE FUNCTION catalogue_stat_fold() RETURNS bigint AS
+$$
+DECLARE
+    written bigint;
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM catalogue_stat_delta) THEN
+        RETURN 0;
+    END IF;
+    -- Перенос с других узлов и пересчёт ждут окончания
+    LOCK TABLE catalogue_stat IN EXCLUSIVE MODE;
+
+    WITH folded AS (
+        DELETE FROM catalogue_stat_delta
+        RETURNING kind, stat_key, delta
+    )
+    INSERT INTO catalogue_stat (kind, stat_key, value)
+    SELECT kind, stat_key, sum(delta)
+    FROM folded
+    GROUP BY kind, stat_key
+    ON CONFLICT (kind, stat_key) DO UPDATE SET value = catalogue_stat.value + excluded.value;
+
+    GET DIAGNOSTICS written = ROW_COUNT;
+    RETURN written;
+END
+$$ LANGUAGE plpgsql;
+
+-- Пересчёт удаляет приращения тем же оператором, которым считает таблицы каталога:
+-- оба видят одни и те же зафиксированные транзакции, поэтому приращение либо уже вошло
+-- в пересчёт и удалено, либо ещё не видно ни пересчёту, ни удалению и будет перенесено позже.
+CREATE OR REPLACE FUNCTION catalogue_stat_recount() RETURNS bigint AS
+$$
+DECLARE
+    written bigint;
+BEGIN
+    -- Перенос приращений ждёт окончания пересчёта
+    LOCK TABLE catalogue_stat IN EXCLUSIVE MODE;
+    DELETE FROM catalogue_stat;
+
+    WITH consumed AS (
+        DELETE FROM catalogue_stat_delta
+        RETURNING id
+    )
+    INSERT INTO catalogue_stat (kind, stat_key, value)
+    SELECT 'total', 'authors', count(*) FROM author
+    UNION ALL
+    SELECT 'total', 'oeuvres', count(*) FROM oeuvre
+    UNION ALL
+    SELECT 'total', 'copies', count(*) FROM copy
+    UNION ALL
+    SELECT 'copy_status', status, count(*) FROM copy GROUP BY status
+    UNION ALL
+    SELECT 'genre', left(genre, 255), count(*) FROM oeuvre GROUP BY left(genre, 255)
+    UNION ALL
+    SELECT 'decade', (published_year / 10 * 10)::text, count(*) FROM oeuvre GROUP BY published_year / 10
+    UNION ALL
+    SELECT 'author_copies', o.author_id::text, count(*)
+    FROM copy c
+             JOIN oeuvre o ON o.id = c.oeuvre_id
+    WHERE o.author_id IS NOT NULL
+    GROUP BY o.author_id;
+
+    GET DIAGNOSTICS written = ROW_COUNT;
+    RETURN written;
+END
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,36 @@
+/*
+ * Отметка строк таблицы для массовых операций.
+ *
+ * Разметка:
+ *   <form class="bulk-form" ...>
+ *       <span class="bulk-count"></span>            — количество отмеченных строк
+ *       <button class="bulk-action" ...>            — недоступна, пока ничего не отмечено
+ *       <input type="checkbox" class="bulk-all">    — отметить все строки страницы
+ *       <input type="checkbox" name="ids" ...>      — по одному на строку
+ *   </form>
+ */
+(function () {
+    function init(form) {
+        const all = form.querySelector('.bulk-all');
+        const boxes = Array.from(form.querySelectorAll('input[name=ids]'));
+        const count = form.querySelector('.bulk-count');
+        const actions = form.querySelectorAll('.bulk-action');
+
+        function refresh() {
+            const checked = boxes.filter(box => box.checked).length;
+            count.textContent = checked;
+            actions.forEach(button => button.disabled = checked === 0);
+            all.checked = checked > 0 && checked === boxes.length;
+            all.indeterminate = checked > 0 && checked < boxes.length;
+        }
+
+        all.addEventListener('change', function () {
+            boxes.forEach(box => box.checked = all.checked);
+            refresh();
+        });
+        boxes.forEach(box => box.addEventListener('change', refresh));
+        refresh();
+    }
+
+    document.querySelectorAll('.bulk-form').forEach(init);
+})();
@@ -0,0 +1,109 @@
+/*
+ * Поле выбора с автодополнением.
+ *
+ * Разметка:
+ *   <div class="lookup" data-lookup-url="/authors/lookup">
+ *       <input type="hidden" ...>          — идентификатор, отправляемый формой
+ *       <input type="text" class="lookup-input" ...>
+ *       <ul class="lookup-results"></ul>
+ *   </div>
+ *
+ * Подсказки запрашиваются у сервера по мере ввода, поэтому форма
+ * не загружает весь справочник целиком.
+ */
+(function () {
+    const DEBOUNCE_MS = 200;
+    const LIMIT = 20;
+
+    function init(container) {
+        const url = container.dataset.lookupUrl;
+        const hidden = container.querySelector('input[type=hidden]');
+        const input = container.querySelector('.lookup-input');
+        const results = container.querySelector('.lookup-results');
+        const message = input.dataset.requiredMessage || 'Выберите значение из списка';
+        let timer = null;
+        let request = 0;
+
+        function close() {
+            results.innerHTML = '';
+            results.hidden = true;
+        }
+
+        function choose(item) {
+            hidden.value = item.id;
+            input.value = item.label;
+            input.setCustomValidity('');
+            close();
+        }
+
+        function render(items) {
+            results.innerHTML = '';
+            if (items.length === 0) {
+                const empty = document.createElement('li');
+                empty.className = 'lookup-empty';
+                empty.textContent = 'Ничего не найдено';
+                results.appendChild(empty);
+            }
+            items.forEach(function (item) {
+                const li = document.createElement('li');
+                li.textContent = item.label;
+                if (item.detail) {
+                    const detail = document.createElement('small');
+                    detail.textContent = ' — ' + item.detail;
+                    li.appendChild(detail);
+                }
+                li.addEventListener('mousedown', function (event) {
+                    event.preventDefault();
+                    choose(item);
+                });
+                results.appendChild(li);
+            });
+            results.hidden = false;
+        }
+
+        function search() {
+            const query = input.value.trim();
+            if (query.length === 0) {
+                close();
+                return;
+            }
+            const current = ++request;
+            fetch(url + '?q=' + encodeURIComponent(query) + '&limit=' + LIMIT)
+                .then(function (response) { return response.json(); })
+                .then(function (items) {
+                    if (current === request) {
+                        render(items);
+                    }
+                })
+                .catch(close);
+        }
+
+        input.addEventListener('input', function () {
+            hidden.value = '';
+            input.setCustomValidity(message);
+            clearTimeout(timer);
+            timer = setTimeout(search, DEBOUNCE_MS);
+        });
+
+        input.addEventListener('keydown', function (event) {
+            if (event.key === 'Enter' && !results.hidden) {
+                const first = results.querySelector('li:not(.lookup-empty)');
+                if (first) {
+                    event.preventDefault();
+                    first.dispatchEvent(new MouseEvent('mousedown', {cancelable: true}));
+                }
+            } else if (event.key === 'Escape') {
+                close();
+            }
+        });
+
+        input.addEventListener('blur', close);
+
+        if (!hidden.value) {
+            input.setCustomValidity(input.value ? message : '');
+        }
+        close();
+    }
+
+    document.querySelectorAll('.lookup').forEach(init);
+})();
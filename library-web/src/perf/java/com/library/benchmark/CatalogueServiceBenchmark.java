@@ -0,0 +1,60 @@
+package com.library.benchmark;
+
+import com.library.entity.Author;
+import com.library.entity.Copy;
+import com.library.entity.Oeuvre;
+import com.library.service.AuthorService;
+import com.library.service.CopyService;
+import com.library.service.OeuvreService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Горячие пути сервисного слоя: полные выборки, создание копии и обновление автора.
+ * Запросы выполняются на встроенном PostgreSQL, кэш второго уровня включён, как в приложении.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+public class CatalogueServiceBenchmark {
+
+	/** Имена чередуются, чтобы каждое обновление действительно меняло строку. */
+	private static final String[] AUTHOR_NAMES = {"Лев Толстой", "Антон Чехов"};
+
+	private int updates;
+
+	@Benchmark
+	public List<Copy> copyServiceGetAll(SeededCatalogue catalogue) {
+		return catalogue.bean(CopyService.class).getAll();
+	}
+
+	@Benchmark
+	public List<Oeuvre> oeuvreServiceGetAllOeuvres(SeededCatalogue catalogue) {
+		return catalogue.bean(OeuvreService.class).getAllOeuvres();
+	}
+
+	@Benchmark
+	public Copy copyServiceCreate(SeededCatalogue catalogue) {
+		Copy copy = Copy.builder()
+				.inventoryNumber(catalogue.nextInventoryNumber())
+				.oeuvre(Oeuvre.builder().id(1L).build())
+				.build();
+		return catalogue.bean(CopyService.class).create(copy);
+	}
+
+	@Benchmark
+	public Author authorServiceUpdateAuthor(SeededCatalogue catalogue) {
+		Author details = Author.builder()
+				.name(AUTHOR_NAMES[updates++ % AUTHOR_NAMES.length])
+				.nationality("русский")
+				.build();
+		return catalogue.bean(AuthorService.class).updateAuthor(1L, details);
+	}
+}
@@ -0,0 +1,98 @@
+package com.library.benchmark;
+
+import com.library.repository.CopyRepository;
+import com.library.repository.OeuvreRepository;
+import com.library.repository.projection.CopyListRow;
+import com.library.repository.projection.OeuvreListRow;
+import com.library.service.CopyService;
+import com.library.service.KeysetPage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Отрисовка шаблонов списков oeuvres/list и copies/list, когда на странице
+ * все строки каталога ({@link SeededCatalogue#rows}). Строки читаются из базы один раз,
+ * измеряется только работа Thymeleaf.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ListTemplateBenchmark {
+
+	/** Размер пачки идентификаторов при подсчёте доступных копий (лимит параметров JDBC). */
+	private static final int AVAILABILITY_CHUNK = 10_000;
+
+	@State(Scope.Benchmark)
+	public static class Pages {
+
+		private SpringTemplateEngine engine;
+		private JakartaServletWebApplication application;
+		private MockServletContext servletContext;
+		private Map<String, Object> oeuvres;
+		private Map<String, Object> copies;
+
+		@Setup(Level.Trial)
+		public void load(SeededCatalogue catalogue) {
+			engine = catalogue.bean(SpringTemplateEngine.class);
+			servletContext = new MockServletContext();
+			application = JakartaServletWebApplication.buildApplication(servletContext);
+
+			PageRequest all = PageRequest.ofSize(catalogue.rows);
+			List<OeuvreListRow> oeuvreRows = catalogue.bean(OeuvreRepository.class).findListRowsAfter(0L, all).getContent();
+			CopyService copyService = catalogue.bean(CopyService.class);
+			Map<Long, Long> availability = new HashMap<>();
+			for (int from = 0; from < oeuvreRows.size(); from += AVAILABILITY_CHUNK) {
+				List<Long> ids = oeuvreRows.subList(from, Math.min(from + AVAILABILITY_CHUNK, oeuvreRows.size()))
+						.stream().map(OeuvreListRow::id).toList();
+				availability.putAll(copyService.countAvailable(ids));
+			}
+			oeuvres = Map.of(
+					"oeuvres", oeuvreRows,
+					"availability", availability,
+					"page", new KeysetPage<>(oeuvreRows, oeuvreRows.size(), null, null),
+					"oeuvreCount", (long) oeuvreRows.size());
+
+			List<CopyListRow> copyRows = catalogue.bean(CopyRepository.class).findListRowsAfter(0L, all).getContent();
+			copies = Map.of(
+					"copies", copyRows,
+					"page", new KeysetPage<>(copyRows, copyRows.size(), null, null),
+					"copyCount", (long) copyRows.size(),
+					"statuses", copyService.getStatuses());
+		}
+
+		String render(String template, String path, Map<String, Object> variables) {
+			MockHttpServletRequest request = new MockHttpServletRequest(servletContext, "GET", path);
+			WebContext context = new WebContext(application.buildExchange(request, new MockHttpServletResponse()),
+					Locale.forLanguageTag("ru"), variables);
+			return engine.process(template, context);
+		}
+	}
+
+	@Benchmark
+	public String renderOeuvresList(Pages pages) {
+		return pages.render("oeuvres/list", "/oeuvres", pages.oeuvres);
+	}
+
+	@Benchmark
+	public String renderCopiesList(Pages pages) {
+		return pages.render("copies/list", "/copies", pages.copies);
+	}
+}
@@ -0,0 +1,52 @@
+package com.library.benchmark;
+
+import com.library.perf.EmbeddedCatalogue;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+
+/**
+ * Каталог заданного размера на встроенном PostgreSQL (см. {@link EmbeddedCatalogue}).
+ * Запускается один раз на форк JMH, без веб-сервера.
+ */
+@State(Scope.Benchmark)
+public class SeededCatalogue {
+
+	/** Количество произведений и копий в каталоге. */
+	@Param({"1000", "100000"})
+	public int rows;
+
+	private EmbeddedCatalogue catalogue;
+	private long sequence;
+
+	@Setup(Level.Trial)
+	public void start() throws IOException {
+		catalogue = EmbeddedCatalogue.start(rows, false);
+	}
+
+	@TearDown(Level.Trial)
+	public void stop() throws IOException {
+		catalogue.close();
+	}
+
+	/**
+	 * @param type тип компонента
+	 * @return компонент приложения
+	 */
+	public <T> T bean(Class<T> type) {
+		return catalogue.bean(type);
+	}
+
+	/**
+	 * @return новый инвентарный номер, не пересекающийся с номерами тестовых данных
+	 */
+	public String nextInventoryNumber() {
+		String suffix = Long.toString(sequence++, 36).toUpperCase();
+		return "B" + "0".repeat(5 - suffix.length()) + suffix;
+	}
+}
@@ -0,0 +1,151 @@
+package com.library.perf;
+
+import com.library.LibraryMenegerApplication;
+import com.library.service.CatalogueStatsService;
+import com.library.service.InventoryNumberIndex;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Приложение на встроенном PostgreSQL с тестовым каталогом заданного размера —
+ * общая основа бенчмарков и нагрузочного теста.
+ *
+ * Встроенный PostgreSQL запускается из бинарных файлов, скачанных Maven как зависимость,
+ * поэтому после первой сборки работает без сети. H2 в режиме PostgreSQL не подходит:
+ * миграции db/migration используют tsvector, pg_trgm и PL/pgSQL.
+ *
+ * Схему создают миграции Flyway из db/migration, затем таблицы заполняются
+ * операторами INSERT ... SELECT generate_series: имена авторов и названия произведений
+ * складываются из словарей, жанры, годы и статусы копий распределены детерминированно.
+ */
+public final class EmbeddedCatalogue implements Closeable {
+
+	/** Авторов в каталоге в столько раз меньше, чем произведений. */
+	public static final int OEUVRES_PER_AUTHOR = 20;
+
+	private static final String FIRST_NAMES = "Лев Фёдор Антон Иван Михаил Николай Александр Борис Сергей Владимир "
+			+ "Анна Марина Ольга Татьяна Евгений Константин Максим Алексей Дмитрий Павел";
+	private static final String LAST_NAMES = "Толстой Достоевский Чехов Тургенев Булгаков Гоголь Пушкин Пастернак "
+			+ "Шолохов Есенин Ахматова Цветаева Бунин Набоков Платонов Лермонтов Горький Куприн Андреев Замятин "
+			+ "Гроссман Солженицын Довлатов Аксёнов Распутин Шукшин Астафьев Быков Трифонов Искандер";
+	private static final String TITLE_WORDS = "война мир преступление наказание идиот бесы братья мастер тихий дон "
+			+ "отцы дети герой времени души онегин гвардия сердце стулья телёнок доктор жизнь судьба море остров "
+			+ "звезда город дорога ночь утро осень зима весна лето река лес поле дом сад камень огонь ветер снег "
+			+ "дождь солнце луна тайна история путешествие возвращение письмо сон память любовь смерть надежда";
+
+	private final EmbeddedPostgres postgres;
+	private final ConfigurableApplicationContext context;
+	private final int rows;
+
+	private EmbeddedCatalogue(EmbeddedPostgres postgres, ConfigurableApplicationContext context, int rows) {
+		this.postgres = postgres;
+		this.context = context;
+		this.rows = rows;
+	}
+
+	/**
+	 * Запускает базу данных и приложение и заполняет каталог.
+	 *
+	 * @param rows       количество произведений и копий
+	 * @param web        запускать ли веб-сервер (на случайном порту)
+	 * @param properties дополнительные свойства приложения вида {@code имя=значение}
+	 * @return запущенный каталог
+	 * @throws IOException если не удалось запустить PostgreSQL
+	 */
+	public static EmbeddedCatalogue start(int rows, boolean web, String... properties) throws IOException {
+		// Иначе devtools перезапускает вызывающий метод main с аргументами приложения
+		System.setProperty("spring.devtools.restart.enabled", "false");
+		EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+		List<String> args = new ArrayList<>(List.of(
+				"--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+				"--spring.datasource.username=postgres",
+				"--spring.datasource.password=",
+				"--server.port=0",
+				"--spring.jpa.show-sql=false",
+				"--spring.jpa.properties.hibernate.format_sql=false",
+				"--spring.thymeleaf.cache=true",
+				"--logging.level.root=WARN"));
+		for (String property : properties) {
+			args.add("--" + property);
+		}
+		ConfigurableApplicationContext context = new SpringApplicationBuilder(LibraryMenegerApplication.class)
+				.web(web ? WebApplicationType.SERVLET : WebApplicationType.NONE)
+				.run(args.toArray(String[]::new));
+		EmbeddedCatalogue catalogue = new EmbeddedCatalogue(postgres, context, rows);
+		catalogue.seed();
+		return catalogue;
+	}
+
+	/**
+	 * @return количество произведений и копий в исходном каталоге
+	 */
+	public int rows() {
+		return rows;
+	}
+
+	/**
+	 * @return количество авторов в исходном каталоге
+	 */
+	public int authors() {
+		return Math.max(1, rows / OEUVRES_PER_AUTHOR);
+	}
+
+	/**
+	 * @return порт веб-сервера приложения
+	 */
+	public int port() {
+		return ((WebServerApplicationContext) context).getWebServer().getPort();
+	}
+
+	/**
+	 * @param type тип компонента
+	 * @return компонент приложения
+	 */
+	public <T> T bean(Class<T> type) {
+		return context.getBean(type);
+	}
+
+	@Override
+	public void close() throws IOException {
+		context.close();
+		postgres.close();
+	}
+
+	private void seed() {
+		JdbcTemplate jdbc = bean(JdbcTemplate.class);
+		int authors = authors();
+		jdbc.update("insert into author(id, name, nationality, birth_date) "
+				+ "select g, (string_to_array(?, ' '))[1 + g % 20] || ' ' || (string_to_array(?, ' '))[1 + (g / 20) % 30], "
+				+ "(array['русский', 'русская', 'советский', 'российский'])[1 + g % 4], "
+				+ "date '1800-01-01' + (hashint4(g) & 65535) % 60000 "
+				+ "from generate_series(1, ?) g", FIRST_NAMES, LAST_NAMES, authors);
+		jdbc.update("insert into oeuvre(id, title, genre, published_year, author_id) "
+				+ "select g, initcap(w[1 + (hashint4(g) & 65535) % n]) || ' ' || w[1 + (hashint4(g * 7) & 65535) % n] "
+				+ "|| ' ' || w[1 + (hashint4(g * 13) & 65535) % n], "
+				+ "(array['Роман', 'Повесть', 'Рассказ', 'Поэма', 'Драма', 'Сказка', 'Фантастика', 'Детектив'])[1 + g % 8], "
+				+ "1800 + (hashint4(g * 3) & 65535) % 225, 1 + (hashint4(g * 5) & 65535) % ? "
+				+ "from generate_series(1, ?) g, "
+				+ "lateral (select string_to_array(?, ' ') as w, cardinality(string_to_array(?, ' ')) as n) words",
+				authors, rows, TITLE_WORDS, TITLE_WORDS);
+		jdbc.update("insert into copy(id, inventory_number, status, oeuvre_id) "
+				+ "select g, lpad(g::text, 6, '0'), case when g % 20 = 0 then 'D' when g % 50 = 1 then 'X' else 'A' end, "
+				+ "1 + (hashint4(g * 11) & 65535) % ? "
+				+ "from generate_series(1, ?) g", rows, rows);
+		// Следующий блок идентификаторов Hibernate (allocationSize = 50) начнётся после тестовых данных
+		jdbc.queryForObject("select setval('author_seq', ?)", Long.class, authors + 50L);
+		jdbc.queryForObject("select setval('oeuvre_seq', ?)", Long.class, rows + 50L);
+		jdbc.queryForObject("select setval('copy_seq', ?)", Long.class, rows + 50L);
+		jdbc.execute("analyze");
+		bean(CatalogueStatsService.class).recount();
+		bean(InventoryNumberIndex.class).rebuild();
+	}
+}
@@ -0,0 +1,78 @@
+package com.library.perf;
+
+import java.util.Arrays;
+
+/**
+ * Накопитель времени ответа одного адреса нагрузочного теста.
+ * Хранит все замеры, поэтому процентили считаются точно, без гистограмм.
+ */
+final class LatencyRecorder {
+
+	private final String endpoint;
+	private long[] nanos = new long[1024];
+	private int count;
+	private int errors;
+
+	LatencyRecorder(String endpoint) {
+		this.endpoint = endpoint;
+	}
+
+	String endpoint() {
+		return endpoint;
+	}
+
+	/**
+	 * @param elapsed время ответа в наносекундах
+	 * @param success получен ли ожидаемый ответ
+	 */
+	synchronized void record(long elapsed, boolean success) {
+		if (count == nanos.length) {
+			nanos = Arrays.copyOf(nanos, count * 2);
+		}
+		nanos[count++] = elapsed;
+		if (!success) {
+			errors++;
+		}
+	}
+
+	/**
+	 * Добавляет замеры этого адреса в общий итог.
+	 *
+	 * @param total накопитель общего итога
+	 */
+	synchronized void copyTo(LatencyRecorder total) {
+		for (int i = 0; i < count; i++) {
+			total.record(nanos[i], true);
+		}
+		synchronized (total) {
+			total.errors += errors;
+		}
+	}
+
+	/**
+	 * @param seconds длительность замера
+	 * @return итог по адресу
+	 */
+	synchronized Summary summarize(double seconds) {
+		long[] sorted = Arrays.copyOf(nanos, count);
+		Arrays.sort(sorted);
+		return new Summary(endpoint, count, errors, count / seconds,
+				percentile(sorted, 50), percentile(sorted, 95), percentile(sorted, 99),
+				count == 0 ? 0 : sorted[count - 1] / 1e6);
+	}
+
+	/**
+	 * Итог по адресу: пропускная способность в запросах в секунду, время ответа в миллисекундах.
+	 */
+	record Summary(String endpoint, int requests, int errors, double throughput,
+			double p50, double p95, double p99, double max) {
+	}
+
+	private static double percentile(long[] sorted, int percent) {
+		if (sorted.length == 0) {
+			return 0;
+		}
+		int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+		return sorted[Math.max(0, rank - 1)] / 1e6;
+	}
+}
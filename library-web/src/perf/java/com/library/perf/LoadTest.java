@@ -0,0 +1,295 @@
+package com.library.perf;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntPredicate;
+import java.util.stream.Collectors;
+
+/**
+ * Сквозной нагрузочный тест по HTTP.
+ *
+ * Запускает приложение на встроенном PostgreSQL с каталогом {@code rows} произведений
+ * и копий (см. {@link EmbeddedCatalogue}), затем {@code clients} клиентов без пауз
+ * воспроизводят смешанную нагрузку: страницы списков и просмотра, отправку форм
+ * создания автора, произведения и копии и удаление созданных тестом записей.
+ * После прогрева в течение {@code warmup} секунд замер длится {@code duration} секунд;
+ * по каждому адресу выводятся пропускная способность и процентили времени ответа,
+ * итог сохраняется в JSON-файл {@code report}.
+ *
+ * Параметры передаются аргументами вида {@code имя=значение}, например
+ * {@code rows=100000 clients=32 warmup=15 duration=60}.
+ */
+public final class LoadTest {
+
+	private static final String RUSSIAN_LETTERS = "абвгдежзиклмнопрстуфхцчшэюя";
+	private static final String[] GENRES = {"Роман", "Повесть", "Рассказ", "Поэма", "Драма"};
+
+	private final HttpClient client = HttpClient.newBuilder()
+			.version(HttpClient.Version.HTTP_1_1)
+			.followRedirects(HttpClient.Redirect.NEVER)
+			.connectTimeout(Duration.ofSeconds(10))
+			.build();
+	private final ObjectMapper json = new ObjectMapper();
+	private final String base;
+	private final int rows;
+	private final int authors;
+	private final List<Operation> mix = new ArrayList<>();
+	private final AtomicLong sequence = new AtomicLong();
+	private final Queue<Long> createdAuthors = new ConcurrentLinkedQueue<>();
+	private final Queue<Long> createdOeuvres = new ConcurrentLinkedQueue<>();
+	private final Queue<Long> createdCopies = new ConcurrentLinkedQueue<>();
+	private volatile ConcurrentMap<String, LatencyRecorder> recorders = new ConcurrentHashMap<>();
+
+	private LoadTest(int port, int rows, int authors) {
+		this.base = "http://localhost:" + port;
+		this.rows = rows;
+		this.authors = authors;
+		add(20, random -> list("/copies", rows, random));
+		add(15, random -> list("/oeuvres", rows, random));
+		add(10, random -> list("/authors", authors, random));
+		add(12, random -> get("GET /copies/view/{id}", "/copies/view/" + (1 + random.nextInt(rows)), ok()));
+		add(12, random -> get("GET /oeuvres/view/{id}", "/oeuvres/view/" + (1 + random.nextInt(rows)), ok()));
+		add(8, random -> get("GET /authors/view/{id}", "/authors/view/" + (1 + random.nextInt(authors)), ok()));
+		add(3, random -> get("GET /", "/", ok()));
+		add(4, random -> createAuthor());
+		add(4, this::createOeuvre);
+		add(6, this::createCopy);
+		add(3, random -> delete("/copies", createdCopies));
+		add(2, random -> delete("/oeuvres", createdOeuvres));
+		add(1, random -> delete("/authors", createdAuthors));
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> settings = new LinkedHashMap<>(Map.of(
+				"rows", "100000", "clients", "32", "warmup", "15", "duration", "60",
+				"report", "target/load-test-result.json"));
+		for (String arg : args) {
+			String[] pair = arg.split("=", 2);
+			if (pair.length != 2 || !settings.containsKey(pair[0])) {
+				throw new IllegalArgumentException("Неизвестный параметр: " + arg + ", допустимы " + settings.keySet());
+			}
+			settings.put(pair[0], pair[1]);
+		}
+		int rows = Integer.parseInt(settings.get("rows"));
+		int clients = Integer.parseInt(settings.get("clients"));
+		int warmup = Integer.parseInt(settings.get("warmup"));
+		int duration = Integer.parseInt(settings.get("duration"));
+
+		System.out.printf("Запуск каталога: %d произведений и копий...%n", rows);
+		try (EmbeddedCatalogue catalogue = EmbeddedCatalogue.start(rows, true)) {
+			LoadTest test = new LoadTest(catalogue.port(), rows, catalogue.authors());
+			System.out.printf("Прогрев: %d с, клиентов: %d%n", warmup, clients);
+			test.run(clients, warmup);
+			test.recorders = new ConcurrentHashMap<>();
+			System.out.printf("Замер: %d с%n", duration);
+			long started = System.nanoTime();
+			test.run(clients, duration);
+			double seconds = (System.nanoTime() - started) / 1e9;
+
+			List<LatencyRecorder.Summary> endpoints = test.recorders.values().stream()
+					.map(recorder -> recorder.summarize(seconds))
+					.sorted(Comparator.comparing(LatencyRecorder.Summary::endpoint))
+					.collect(Collectors.toList());
+			LatencyRecorder total = new LatencyRecorder("Всего");
+			test.recorders.values().forEach(recorder -> recorder.copyTo(total));
+			LatencyRecorder.Summary summary = total.summarize(seconds);
+			print(endpoints, summary);
+
+			Map<String, Object> report = new LinkedHashMap<>();
+			report.put("rows", rows);
+			report.put("clients", clients);
+			report.put("warmupSeconds", warmup);
+			report.put("durationSeconds", seconds);
+			report.put("endpoints", endpoints);
+			report.put("total", summary);
+			Path file = Path.of(settings.get("report"));
+			Files.createDirectories(file.toAbsolutePath().getParent());
+			test.json.enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), report);
+			System.out.println("Результат сохранён в " + file.toAbsolutePath());
+		}
+	}
+
+	/**
+	 * Одна операция смешанной нагрузки.
+	 */
+	@FunctionalInterface
+	private interface Operation {
+		void run(ThreadLocalRandom random) throws IOException, InterruptedException;
+	}
+
+	private void add(int weight, Operation operation) {
+		for (int i = 0; i < weight; i++) {
+			mix.add(operation);
+		}
+	}
+
+	private void run(int clients, int seconds) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+		ExecutorService pool = Executors.newFixedThreadPool(clients);
+		for (int i = 0; i < clients; i++) {
+			pool.execute(() -> {
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				while (System.nanoTime() < deadline) {
+					try {
+						mix.get(random.nextInt(mix.size())).run(random);
+					} catch (IOException e) {
+						// Ошибка уже учтена в статистике адреса
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						return;
+					}
+				}
+			});
+		}
+		pool.shutdown();
+		pool.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+	}
+
+	private void list(String path, int max, ThreadLocalRandom random) throws IOException, InterruptedException {
+		// Четверть запросов открывает первую страницу, остальные — страницу с произвольного места
+		String query = random.nextInt(4) == 0 ? "" : "?after=" + random.nextInt(max);
+		get("GET " + path, path + query, ok());
+	}
+
+	private void createAuthor() throws IOException, InterruptedException {
+		String name = "Нагрузочный Автор " + word(sequence.incrementAndGet());
+		post("POST /authors", "/authors", Map.of("name", name, "nationality", "русский"));
+		lookup("/authors", name, createdAuthors);
+	}
+
+	private void createOeuvre(ThreadLocalRandom random) throws IOException, InterruptedException {
+		String title = "Нагрузочное произведение " + word(sequence.incrementAndGet());
+		post("POST /oeuvres", "/oeuvres", Map.of(
+				"title", title,
+				"genre", GENRES[random.nextInt(GENRES.length)],
+				"publishedYear", String.valueOf(1800 + random.nextInt(225)),
+				"author.id", String.valueOf(1 + random.nextInt(authors))));
+		lookup("/oeuvres", title, createdOeuvres);
+	}
+
+	private void createCopy(ThreadLocalRandom random) throws IOException, InterruptedException {
+		String suffix = Long.toString(sequence.incrementAndGet(), 36).toUpperCase();
+		String number = "N" + "0".repeat(Math.max(0, 5 - suffix.length())) + suffix;
+		post("POST /copies", "/copies", Map.of(
+				"oeuvre.id", String.valueOf(1 + random.nextInt(rows)),
+				"inventoryNumber", number,
+				"status", "AVAILABLE"));
+		HttpResponse<String> response = get("GET /copies/inventory/{number}", "/copies/inventory/" + number, ok());
+		if (response.statusCode() == 200) {
+			createdCopies.add(json.readTree(response.body()).path("id").asLong());
+		}
+	}
+
+	/**
+	 * Удаляет одну из созданных тестом записей; исходный каталог не изменяется.
+	 */
+	private void delete(String path, Queue<Long> created) throws IOException, InterruptedException {
+		Long id = created.poll();
+		if (id != null) {
+			get("GET " + path + "/delete/{id}", path + "/delete/" + id, status -> status == 302);
+		}
+	}
+
+	/**
+	 * Находит идентификатор созданной записи через подсказки поля выбора.
+	 */
+	private void lookup(String path, String label, Queue<Long> created) throws IOException, InterruptedException {
+		HttpResponse<String> response = get("GET " + path + "/lookup",
+				path + "/lookup?q=" + URLEncoder.encode(label, StandardCharsets.UTF_8), ok());
+		if (response.statusCode() == 200) {
+			for (JsonNode item : json.readTree(response.body())) {
+				if (label.equals(item.path("label").asText())) {
+					created.add(item.path("id").asLong());
+				}
+			}
+		}
+	}
+
+	private HttpResponse<String> get(String endpoint, String path, IntPredicate expected)
+			throws IOException, InterruptedException {
+		return send(endpoint, HttpRequest.newBuilder(URI.create(base + path)).GET(), expected);
+	}
+
+	/**
+	 * Отправляет форму; успешное сохранение отвечает перенаправлением, ошибка валидации — страницей формы.
+	 */
+	private void post(String endpoint, String path, Map<String, String> form) throws IOException, InterruptedException {
+		String body = form.entrySet().stream()
+				.map(field -> field.getKey() + "=" + URLEncoder.encode(field.getValue(), StandardCharsets.UTF_8))
+				.collect(Collectors.joining("&"));
+		send(endpoint, HttpRequest.newBuilder(URI.create(base + path))
+				.header("Content-Type", "application/x-www-form-urlencoded")
+				.POST(HttpRequest.BodyPublishers.ofString(body)), status -> status == 302);
+	}
+
+	private HttpResponse<String> send(String endpoint, HttpRequest.Builder request, IntPredicate expected)
+			throws IOException, InterruptedException {
+		LatencyRecorder recorder = recorders.computeIfAbsent(endpoint, LatencyRecorder::new);
+		long started = System.nanoTime();
+		try {
+			HttpResponse<String> response = client.send(request.timeout(Duration.ofSeconds(30)).build(),
+					HttpResponse.BodyHandlers.ofString());
+			recorder.record(System.nanoTime() - started, expected.test(response.statusCode()));
+			return response;
+		} catch (IOException e) {
+			recorder.record(System.nanoTime() - started, false);
+			throw e;
+		}
+	}
+
+	private static IntPredicate ok() {
+		return status -> status == 200;
+	}
+
+	/**
+	 * Записывает число русскими буквами: имена авторов могут содержать только буквы.
+	 */
+	private static String word(long number) {
+		StringBuilder word = new StringBuilder();
+		do {
+			word.append(RUSSIAN_LETTERS.charAt((int) (number % RUSSIAN_LETTERS.length())));
+			number /= RUSSIAN_LETTERS.length();
+		} while (number > 0);
+		return word.reverse().toString();
+	}
+
+	private static void print(List<LatencyRecorder.Summary> endpoints, LatencyRecorder.Summary total) {
+		String format = "%-34s %9s %7s %9s %9s %9s %9s %9s%n";
+		System.out.printf(format, "Адрес", "Запросов", "Ошибок", "Запр/с", "p50, мс", "p95, мс", "p99, мс", "max, мс");
+		for (LatencyRecorder.Summary summary : endpoints) {
+			printRow(summary);
+		}
+		printRow(total);
+	}
+
+	private static void printRow(LatencyRecorder.Summary summary) {
+		System.out.printf("%-34s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n", summary.endpoint(), summary.requests(),
+				summary.errors(), summary.throughput(), summary.p50(), summary.p95(), summary.p99(), summary.max());
+	}
+}
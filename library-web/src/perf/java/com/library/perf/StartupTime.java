@@ -0,0 +1,152 @@
+package com.library.perf;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Время от запуска процесса до первого ответа 200 на GET / в каждом режиме запуска,
+ * собранном профилями fast-startup и native:
+ * <ul>
+ *     <li>jar — исполняемый jar Spring Boot;</li>
+ *     <li>extracted — распакованный jar (target/extracted);</li>
+ *     <li>aot — распакованный jar с -Dspring.aot.enabled=true;</li>
+ *     <li>aot-cds — то же с архивом классов CDS (application.jsa);</li>
+ *     <li>native — native image GraalVM (target/library-web).</li>
+ * </ul>
+ * Режимы, для которых нет собранных файлов, пропускаются. Каждый режим запускается {@code runs} раз,
+ * выводятся медиана и минимум; итог сохраняется в JSON-файл {@code report}.
+ *
+ * Класс не зависит от приложения и запускается как исходный файл:
+ * {@code java src/perf/java/com/library/perf/StartupTime.java target=target jar=library-web-0.0.1-SNAPSHOT.jar}.
+ * Приложению нужна база данных из application.properties; дополнительные аргументы приложения
+ * передаются параметром {@code app}, например {@code app=--spring.datasource.url=...}.
+ */
+public final class StartupTime {
+
+	private static final Duration TIMEOUT = Duration.ofSeconds(120);
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> settings = new LinkedHashMap<>(Map.of(
+				"target", "target", "jar", "library-web-0.0.1-SNAPSHOT.jar", "runs", "3", "port", "8097",
+				"report", "target/startup-time.json", "app", ""));
+		for (String arg : args) {
+			String[] pair = arg.split("=", 2);
+			if (pair.length != 2 || !settings.containsKey(pair[0])) {
+				throw new IllegalArgumentException("Неизвестный параметр: " + arg + ", допустимы " + settings.keySet());
+			}
+			settings.put(pair[0], pair[1]);
+		}
+		Path target = Path.of(settings.get("target"));
+		Path jar = target.resolve(settings.get("jar"));
+		Path extracted = target.resolve("extracted").resolve(settings.get("jar"));
+		Path archive = target.resolve("extracted").resolve("application.jsa");
+		Path image = target.resolve("library-web");
+		int runs = Integer.parseInt(settings.get("runs"));
+		int port = Integer.parseInt(settings.get("port"));
+		String java = ProcessHandle.current().info().command().orElse("java");
+
+		Map<String, List<String>> modes = new LinkedHashMap<>();
+		if (Files.exists(jar)) {
+			modes.put("jar", List.of(java, "-jar", jar.toString()));
+		}
+		if (Files.exists(extracted)) {
+			modes.put("extracted", List.of(java, "-jar", extracted.toString()));
+			modes.put("aot", List.of(java, "-Dspring.aot.enabled=true", "-jar", extracted.toString()));
+			if (Files.exists(archive)) {
+				modes.put("aot-cds", List.of(java, "-XX:SharedArchiveFile=" + archive,
+						"-Dspring.aot.enabled=true", "-jar", extracted.toString()));
+			}
+		}
+		if (Files.isExecutable(image)) {
+			modes.put("native", List.of(image.toString()));
+		}
+		if (modes.isEmpty()) {
+			throw new IllegalStateException("В " + target.toAbsolutePath() + " нет собранного приложения");
+		}
+
+		HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+		Map<String, Map<String, Object>> report = new LinkedHashMap<>();
+		System.out.printf("%-10s %12s %12s  %s%n", "Режим", "Медиана, мс", "Минимум, мс", "Замеры, мс");
+		for (Map.Entry<String, List<String>> mode : modes.entrySet()) {
+			List<String> command = new ArrayList<>(mode.getValue());
+			command.add("--server.port=" + port);
+			if (!settings.get("app").isBlank()) {
+				command.addAll(Arrays.asList(settings.get("app").trim().split("\\s+")));
+			}
+			long[] millis = new long[runs];
+			for (int run = 0; run < runs; run++) {
+				millis[run] = timeToFirstResponse(command, port, client,
+						target.resolve("startup-" + mode.getKey() + ".log").toFile());
+			}
+			long[] sorted = millis.clone();
+			Arrays.sort(sorted);
+			System.out.printf("%-10s %12d %12d  %s%n", mode.getKey(), sorted[runs / 2], sorted[0],
+					Arrays.stream(millis).mapToObj(Long::toString).collect(Collectors.joining(" ")));
+			Map<String, Object> result = new LinkedHashMap<>();
+			result.put("medianMillis", sorted[runs / 2]);
+			result.put("minMillis", sorted[0]);
+			result.put("runsMillis", Arrays.stream(millis).boxed().toList());
+			report.put(mode.getKey(), result);
+		}
+		Path file = Path.of(settings.get("report"));
+		Files.writeString(file, toJson(report));
+		System.out.println("Результат сохранён в " + file.toAbsolutePath());
+	}
+
+	/**
+	 * Запускает процесс и опрашивает GET / до первого ответа 200.
+	 *
+	 * @return время от запуска процесса до ответа в миллисекундах
+	 */
+	private static long timeToFirstResponse(List<String> command, int port, HttpClient client, File log)
+			throws IOException, InterruptedException {
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/"))
+				.timeout(Duration.ofSeconds(5))
+				.build();
+		long started = System.nanoTime();
+		Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log).start();
+		try {
+			while (System.nanoTime() - started < TIMEOUT.toNanos()) {
+				if (!process.isAlive()) {
+					throw new IllegalStateException("Приложение завершилось с кодом " + process.exitValue() + ", журнал: " + log);
+				}
+				try {
+					if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+						return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+					}
+				} catch (IOException e) {
+					// Порт ещё не открыт
+				}
+				Thread.sleep(10);
+			}
+			throw new IllegalStateException("Нет ответа за " + TIMEOUT.toSeconds() + " с, журнал: " + log);
+		} finally {
+			process.destroy();
+			if (!process.waitFor(30, TimeUnit.SECONDS)) {
+				process.destroyForcibly().waitFor();
+			}
+		}
+	}
+
+	private static String toJson(Map<String, Map<String, Object>> report) {
+		return report.entrySet().stream()
+				.map(mode -> "  \"" + mode.getKey() + "\": {" + mode.getValue().entrySet().stream()
+						.map(value -> "\"" + value.getKey() + "\": " + value.getValue().toString().replace(" ", ""))
+						.collect(Collectors.joining(", ")) + "}")
+				.collect(Collectors.joining(",\n", "{\n", "\n}\n"));
+	}
+}
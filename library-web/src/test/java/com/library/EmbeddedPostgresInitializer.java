@@ -0,0 +1,51 @@
+package com.library;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.test.util.TestPropertyValues;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Направляет контекст теста во встроенный PostgreSQL вместо базы из application.properties:
+ * тесты пишут в каталог и не должны трогать рабочую базу.
+ *
+ * Подключается к {@code @SpringBootTest} через
+ * {@code @ContextConfiguration(initializers = EmbeddedPostgresInitializer.class)}.
+ * База одна на все тесты JVM и останавливается при её завершении; схему создают миграции Flyway
+ * при первом запуске контекста. Тестовые классы с одинаковой конфигурацией разделяют и контекст.
+ */
+public class EmbeddedPostgresInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+
+	private static EmbeddedPostgres postgres;
+
+	@Override
+	public void initialize(ConfigurableApplicationContext context) {
+		TestPropertyValues.of(
+				"spring.datasource.url=" + postgres().getJdbcUrl("postgres", "postgres"),
+				"spring.datasource.username=postgres",
+				"spring.datasource.password=")
+				.applyTo(context.getEnvironment());
+	}
+
+	private static synchronized EmbeddedPostgres postgres() {
+		if (postgres == null) {
+			try {
+				postgres = EmbeddedPostgres.builder().start();
+			} catch (IOException e) {
+				throw new UncheckedIOException("Не удалось запустить встроенный PostgreSQL", e);
+			}
+			EmbeddedPostgres started = postgres;
+			Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+				try {
+					started.close();
+				} catch (IOException ignored) {
+					// процесс базы завершится вместе с JVM
+				}
+			}));
+		}
+		return postgres;
+	}
+}
@@ -2,8 +2,10 @@ package com.library;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ContextConfiguration;
 
 @SpringBootTest
+@ContextConfiguration(initializers = EmbeddedPostgresInitializer.class)
 class LibraryMenegerApplicationTests {
 
 	@Test
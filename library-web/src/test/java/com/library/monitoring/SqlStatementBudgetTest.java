@@ -0,0 +1,150 @@
+package com.library.monitoring;
+
+import com.library.EmbeddedPostgresInitializer;
+import com.library.entity.Author;
+import com.library.entity.Copy;
+import com.library.entity.Loan;
+import com.library.entity.Oeuvre;
+import com.library.service.AuthorService;
+import com.library.service.CopyService;
+import com.library.service.LoanService;
+import com.library.service.OeuvreService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Бюджеты SQL-операторов страниц: сборка падает, если страница выполняет больше операторов,
+ * чем указано, или повторяет один оператор (N+1). Перед запросом кэш второго уровня очищается,
+ * поэтому бюджет — худший случай первого открытия страницы.
+ *
+ * Страницы списков открываются с курсора перед тестовыми строками: {@value #ROWS} авторов,
+ * у каждого своё произведение с копией, и несколько выдач одной копии. Ленивая загрузка
+ * связи в строке списка поэтому повторяет один оператор многократно, а не укладывается в бюджет.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ContextConfiguration(initializers = EmbeddedPostgresInitializer.class)
+class SqlStatementBudgetTest {
+
+	private static final int ROWS = 10;
+
+	/** Оператор, выполненный за запрос дважды, уже считается повтором. */
+	private static final int REPEATED_THRESHOLD = 2;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private AuthorService authorService;
+
+	@Autowired
+	private OeuvreService oeuvreService;
+
+	@Autowired
+	private CopyService copyService;
+
+	@Autowired
+	private LoanService loanService;
+
+	private final List<Author> authors = new ArrayList<>();
+	private final List<Oeuvre> oeuvres = new ArrayList<>();
+	private final List<Copy> copies = new ArrayList<>();
+
+	@BeforeEach
+	void createCatalogue() {
+		String prefix = "S" + UUID.randomUUID().toString().substring(0, 4).toUpperCase(Locale.ROOT);
+		for (int i = 0; i < ROWS; i++) {
+			Author author = authorService.saveAuthor(Author.builder()
+					.name("Бюджет Запросов " + (char) ('А' + i))
+					.build());
+			Oeuvre oeuvre = oeuvreService.saveOeuvre(Oeuvre.builder()
+					.title("Бюджет запросов " + UUID.randomUUID())
+					.genre("Тест " + i)
+					.publishedYear(1900 + 10 * i)
+					.author(author)
+					.build());
+			Copy copy = copyService.create(Copy.builder()
+					.inventoryNumber(prefix + i)
+					.oeuvre(oeuvre)
+					.build());
+			authors.add(author);
+			oeuvres.add(oeuvre);
+			copies.add(copy);
+		}
+		Long copyId = copies.get(0).getId();
+		for (int i = 0; i < ROWS; i++) {
+			Loan loan = loanService.checkout(copyId, "Читатель " + i, null);
+			loanService.returnLoan(loan.getId());
+		}
+	}
+
+	@AfterEach
+	void deleteCatalogue() {
+		// Произведения, копии и выдачи удаляются вместе с автором
+		for (Author author : authors) {
+			authorService.deleteAuthor(author.getId());
+		}
+	}
+
+	@Test
+	void oeuvreList() throws Exception {
+		assertWithinBudget("/oeuvres?after=" + (oeuvres.get(0).getId() - 1), 4);
+	}
+
+	@Test
+	void copyList() throws Exception {
+		assertWithinBudget("/copies?after=" + (copies.get(0).getId() - 1), 3);
+	}
+
+	@Test
+	void authorList() throws Exception {
+		assertWithinBudget("/authors?after=" + (authors.get(0).getId() - 1), 3);
+	}
+
+	@Test
+	void oeuvreView() throws Exception {
+		assertWithinBudget("/oeuvres/view/" + oeuvres.get(0).getId(), 4);
+	}
+
+	@Test
+	void copyView() throws Exception {
+		assertWithinBudget("/copies/view/" + copies.get(0).getId(), 3);
+	}
+
+	@Test
+	void authorView() throws Exception {
+		assertWithinBudget("/authors/view/" + authors.get(0).getId(), 2);
+	}
+
+	private void assertWithinBudget(String url, int budget) throws Exception {
+		entityManagerFactory.getCache().evictAll();
+		MvcResult result = mockMvc.perform(get(url)).andExpect(status().isOk()).andReturn();
+		SqlRequestStats stats = (SqlRequestStats) result.getRequest().getAttribute(SqlRequestStats.ATTRIBUTE);
+		assertEquals(Map.of(), stats.repeated(REPEATED_THRESHOLD),
+				() -> url + ": повторяющиеся операторы (N+1)");
+		assertTrue(stats.statements() <= budget,
+				() -> url + ": " + stats.statements() + " SQL-операторов при бюджете " + budget);
+	}
+}
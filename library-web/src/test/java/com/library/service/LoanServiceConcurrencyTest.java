@@ -0,0 +1,154 @@
+package com.library.service;
+
+import com.library.EmbeddedPostgresInitializer;
+import com.library.entity.Copy;
+import com.library.entity.CopyStatus;
+import com.library.entity.Loan;
+import com.library.entity.Oeuvre;
+import com.library.repository.CopyRepository;
+import com.library.repository.LoanRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ContextConfiguration(initializers = EmbeddedPostgresInitializer.class)
+class LoanServiceConcurrencyTest {
+
+	private static final int COPIES = 20;
+	private static final int THREADS = 8;
+	private static final int ATTEMPTS = 800;
+
+	@Autowired
+	private LoanService loanService;
+
+	@Autowired
+	private LoanRepository loanRepository;
+
+	@Autowired
+	private CopyRepository copyRepository;
+
+	@Autowired
+	private CopyService copyService;
+
+	@Autowired
+	private OeuvreService oeuvreService;
+
+	private Oeuvre oeuvre;
+	private final List<Long> copyIds = new ArrayList<>();
+
+	// Данные создаются и удаляются через сервисы, чтобы статистика каталога оставалась согласованной
+	@BeforeEach
+	void createCopies() {
+		oeuvre = oeuvreService.saveOeuvre(Oeuvre.builder()
+				.title("Тест выдачи " + UUID.randomUUID())
+				.genre("Тест")
+				.publishedYear(2000)
+				.build());
+		String prefix = "Q" + UUID.randomUUID().toString().substring(0, 3).toUpperCase(Locale.ROOT);
+		for (Copy copy : copyService.createBatch(Copy.builder().oeuvre(oeuvre).build(), prefix, COPIES)) {
+			copyIds.add(copy.getId());
+		}
+	}
+
+	@AfterEach
+	void deleteCopies() {
+		// Произведение с выданными копиями не удаляется: сначала оформляется возврат.
+		// Копии удаляются вместе с произведением, история выдач — базой данных (ON DELETE CASCADE)
+		for (Long copyId : copyIds) {
+			loanRepository.findOpenRowByCopyId(copyId).ifPresent(loan -> loanService.returnLoan(loan.id()));
+		}
+		oeuvreService.deleteOeuvre(oeuvre.getId());
+	}
+
+	@Test
+	void concurrentCheckoutsNeverIssueACopyTwice() throws Exception {
+		Map<Long, AtomicInteger> issued = new ConcurrentHashMap<>();
+		AtomicInteger rejected = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		List<Future<?>> futures = new ArrayList<>();
+
+		for (int t = 0; t < THREADS; t++) {
+			futures.add(executor.submit(() -> {
+				start.await();
+				for (int i = 0; i < ATTEMPTS / THREADS; i++) {
+					Long copyId = copyIds.get(ThreadLocalRandom.current().nextInt(COPIES));
+					try {
+						loanService.checkout(copyId, "Читатель " + Thread.currentThread().getId(), null);
+						issued.computeIfAbsent(copyId, id -> new AtomicInteger()).incrementAndGet();
+					} catch (IllegalStateException e) {
+						rejected.incrementAndGet();
+					}
+				}
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		executor.shutdown();
+
+		assertEquals(ATTEMPTS, issued.values().stream().mapToInt(AtomicInteger::get).sum() + rejected.get());
+		issued.forEach((copyId, count) -> assertEquals(1, count.get(), "копия " + copyId + " выдана дважды"));
+		for (Long copyId : copyIds) {
+			CopyStatus status = copyRepository.findById(copyId).orElseThrow().getStatus();
+			assertEquals(issued.containsKey(copyId) ? CopyStatus.ON_LOAN : CopyStatus.AVAILABLE, status);
+			assertEquals(issued.containsKey(copyId), loanRepository.existsByCopyIdAndReturnDateIsNull(copyId));
+		}
+	}
+
+	@Test
+	void concurrentReturnsCloseALoanOnce() throws Exception {
+		Long copyId = copyIds.get(0);
+		Loan loan = loanService.checkout(copyId, "Читатель", null);
+		AtomicInteger returned = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		List<Future<?>> futures = new ArrayList<>();
+
+		for (int t = 0; t < THREADS; t++) {
+			futures.add(executor.submit(() -> {
+				start.await();
+				try {
+					loanService.returnLoan(loan.getId());
+					returned.incrementAndGet();
+				} catch (IllegalStateException e) {
+					// возврат уже оформлен другой стойкой
+				}
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		executor.shutdown();
+
+		assertEquals(1, returned.get());
+		assertEquals(CopyStatus.AVAILABLE, copyRepository.findById(copyId).orElseThrow().getStatus());
+		assertTrue(loanRepository.findById(loan.getId()).orElseThrow().getReturnDate() != null);
+		loanService.checkout(copyId, "Следующий читатель", null);
+		assertEquals(CopyStatus.ON_LOAN, copyRepository.findById(copyId).orElseThrow().getStatus());
+	}
+}
@@ -0,0 +1,45 @@
+package com.library.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LongLongHashMapTest {
+
+	@Test
+	void behavesLikeHashMapUnderRandomPutsAndRemoves() {
+		LongLongHashMap map = new LongLongHashMap(0);
+		Map<Long, Long> expected = new HashMap<>();
+		Random random = new Random(42);
+
+		for (int i = 0; i < 200_000; i++) {
+			long key = 1 + random.nextInt(5_000);
+			if (random.nextInt(3) == 0) {
+				map.remove(key);
+				expected.remove(key);
+			} else {
+				map.put(key, i);
+				expected.put(key, (long) i);
+			}
+		}
+
+		assertEquals(expected.size(), map.size());
+		for (long key = 1; key <= 5_000; key++) {
+			assertEquals(expected.getOrDefault(key, LongLongHashMap.NO_VALUE), map.get(key));
+		}
+	}
+
+	@Test
+	void packsInventoryNumbersWithoutCollisions() {
+		assertEquals(0L, InventoryNumberIndex.pack(""));
+		assertEquals(0L, InventoryNumberIndex.pack("№00001"));
+		Map<Long, String> packed = new HashMap<>();
+		for (String number : new String[]{"000001", "00001", "0000010", "A00001", "a00001", "100000"}) {
+			assertEquals(null, packed.put(InventoryNumberIndex.pack(number), number));
+		}
+	}
+}